@@ -0,0 +1,26 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import com.softhouse.technicaltests.peopleporterpipeline.aggregators.PeopleAggregationStrategy;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import org.apache.camel.Exchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+/**
+ * Aggregating persons into one {@code People} object with {@link PeopleAggregationStrategy}.
+ * Scores are per aggregated person.
+ */
+@OperationsPerInvocation(SyntheticPeopleState.PERSONS)
+public class AggregationBenchmark extends StageBenchmark {
+
+    private final PeopleAggregationStrategy strategy = new PeopleAggregationStrategy();
+
+    @Benchmark
+    public Exchange peopleAggregationStrategy(SyntheticPeopleState state) {
+        Exchange aggregated = null;
+        for (Person person : state.persons) {
+            aggregated = strategy.aggregate(aggregated, state.exchange(person));
+        }
+        return aggregated;
+    }
+}
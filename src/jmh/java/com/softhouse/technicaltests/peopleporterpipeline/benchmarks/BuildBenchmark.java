@@ -0,0 +1,39 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import com.softhouse.technicaltests.peopleporterpipeline.input.InputLine;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.BuildPersonProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.FusedPersonBlockProcessor;
+import org.apache.camel.Exchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Building persons: {@link BuildPersonProcessor} from already parsed lines, and the
+ * {@link FusedPersonBlockProcessor} which parses and builds from the raw block in one pass.
+ * Scores are per person.
+ */
+@OperationsPerInvocation(SyntheticPeopleState.PERSONS)
+public class BuildBenchmark extends StageBenchmark {
+
+    private final BuildPersonProcessor buildPersonProcessor = new BuildPersonProcessor();
+    private final FusedPersonBlockProcessor fusedPersonBlockProcessor = new FusedPersonBlockProcessor();
+
+    @Benchmark
+    public void buildPersonProcessor(SyntheticPeopleState state, Blackhole blackhole) {
+        for (List<InputLine> lines : state.parsedBlocks) {
+            Exchange exchange = state.exchange(lines);
+            buildPersonProcessor.process(exchange);
+            blackhole.consume(exchange.getIn().getBody());
+        }
+    }
+
+    @Benchmark
+    public void fusedPersonBlockProcessor(SyntheticPeopleState state, Blackhole blackhole) {
+        for (String block : state.blocks) {
+            blackhole.consume(fusedPersonBlockProcessor.build(block));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal {@code --name value} command line parsing for the generator and throughput harness.
+ */
+class HarnessArguments {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    HarnessArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected '--name value' pairs, got: " + args[i]);
+            }
+            values.put(args[i], args[++i]);
+        }
+    }
+
+    String value(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    String required(String name) {
+        String value = values.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required argument " + name);
+        }
+        return value;
+    }
+
+    int intValue(String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    long longValue(String name, long defaultValue) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name)) : defaultValue;
+    }
+
+    double doubleValue(String name, double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+
+    <E extends Enum<E>> E enumValue(String name, Class<E> type, E defaultValue) {
+        return values.containsKey(name) ? Enum.valueOf(type, values.get(name).toUpperCase(Locale.ROOT)) : defaultValue;
+    }
+
+    // Parses "min-max" or a single number used as both bounds
+    int[] range(String name, int defaultMin, int defaultMax) {
+        String value = values.get(name);
+        if (value == null) {
+            return new int[]{defaultMin, defaultMax};
+        }
+        String[] bounds = value.split("-");
+        int min = Integer.parseInt(bounds[0]);
+        return new int[]{min, bounds.length > 1 ? Integer.parseInt(bounds[1]) : min};
+    }
+
+    List<String> list(String name, String defaultValue) {
+        return List.of(value(name, defaultValue).split(","));
+    }
+
+    /**
+     * Parses sizes such as {@code 512KB}, {@code 100MB} or {@code 10GB} (binary units) into bytes.
+     */
+    static long parseSize(String size) {
+        String value = size.trim().toUpperCase(Locale.ROOT);
+        long multiplier = 1;
+        if (value.endsWith("KB")) {
+            multiplier = 1L << 10;
+        } else if (value.endsWith("MB")) {
+            multiplier = 1L << 20;
+        } else if (value.endsWith("GB")) {
+            multiplier = 1L << 30;
+        }
+        String number = multiplier == 1 ? value.replace("B", "") : value.substring(0, value.length() - 2);
+        return (long) (Double.parseDouble(number) * multiplier);
+    }
+}
@@ -0,0 +1,57 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.PeopleXmlSerializer;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleXmlWriter;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Marshalling a {@link People} document: JAXB (as used by {@code .marshal().jaxb()}) versus the build-time generated
+ * {@link PeopleXmlSerializer} and the incremental {@link PeopleXmlWriter}. Output is discarded. Scores are per person.
+ */
+@OperationsPerInvocation(SyntheticPeopleState.PERSONS)
+public class MarshalBenchmark extends StageBenchmark {
+
+    private Marshaller marshaller;
+
+    @Setup
+    public void setup() throws JAXBException {
+        marshaller = JAXBContext.newInstance(People.class).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+    }
+
+    @Benchmark
+    public void jaxbMarshal(SyntheticPeopleState state) throws JAXBException {
+        marshaller.marshal(state.people, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void generatedSerializer(SyntheticPeopleState state) throws IOException {
+        PeopleXmlSerializer.write(state.people, new BufferedWriter(
+                new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public void peopleXmlWriter(SyntheticPeopleState state) throws IOException {
+        try (PeopleXmlWriter writer = new PeopleXmlWriter(new BufferedWriter(
+                new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8)))) {
+            writer.writeStart();
+            for (Person person : state.persons) {
+                writer.writePerson(person);
+            }
+            writer.writeEnd();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.ByteInputLineParser;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.InputLineParser;
+import org.apache.camel.Exchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing person blocks into lines: the regex based {@link InputLineParser} versus the byte level
+ * {@link ByteInputLineParser}. Scores are per person block.
+ */
+@OperationsPerInvocation(SyntheticPeopleState.PERSONS)
+public class ParseBenchmark extends StageBenchmark {
+
+    private final InputLineParser inputLineParser = new InputLineParser();
+    private final ByteInputLineParser byteInputLineParser = new ByteInputLineParser();
+
+    @Benchmark
+    public void inputLineParser(SyntheticPeopleState state, Blackhole blackhole) {
+        for (String block : state.blocks) {
+            Exchange exchange = state.exchange(block);
+            inputLineParser.process(exchange);
+            blackhole.consume(exchange.getIn().getBody());
+        }
+    }
+
+    @Benchmark
+    public void byteInputLineParser(SyntheticPeopleState state, Blackhole blackhole) {
+        for (PersonBlockBytes block : state.byteBlocks) {
+            blackhole.consume(byteInputLineParser.parse(block));
+        }
+    }
+}
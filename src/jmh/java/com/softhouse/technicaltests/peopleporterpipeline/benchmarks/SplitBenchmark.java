@@ -0,0 +1,37 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import com.softhouse.technicaltests.peopleporterpipeline.processors.SplitPersonBlocksProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.PersonBlockIterator;
+import org.apache.camel.Exchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+/**
+ * Splitting a whole file into person blocks: the in-memory {@link SplitPersonBlocksProcessor}
+ * versus the streaming {@link PersonBlockIterator} used by the route. Scores are per person block.
+ */
+@OperationsPerInvocation(SyntheticPeopleState.PERSONS)
+public class SplitBenchmark extends StageBenchmark {
+
+    private final SplitPersonBlocksProcessor processor = new SplitPersonBlocksProcessor();
+
+    @Benchmark
+    public Object splitPersonBlocksProcessor(SyntheticPeopleState state) {
+        Exchange exchange = state.exchange(state.fileContent);
+        processor.process(exchange);
+        return exchange.getIn().getBody();
+    }
+
+    @Benchmark
+    public void streamingPersonBlockIterator(SyntheticPeopleState state, Blackhole blackhole) throws Exception {
+        try (PersonBlockIterator iterator = new PersonBlockIterator(new BufferedReader(new StringReader(state.fileContent)))) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic {@code P/T/A/F} input.
+ * <p>
+ * The same seed and settings always produce the same blocks, so files of any size (from a few MB to tens of GB)
+ * can be regenerated instead of being stored. Every person gets a phone and an address line and between
+ * {@code minFamilyMembers} and {@code maxFamilyMembers} family members, each with their own address and phone.
+ * All generated values are {@code fieldLength} characters long, except birth years and postal codes.
+ * <p>
+ * A fraction {@code malformedRatio} of the blocks gets one malformed line appended, picked at random from an
+ * unsupported line type, a line without values and a family member without a birth year, so the error path can be
+ * exercised.
+ * <p>
+ * Can also be run from the command line:
+ * <pre>
+ * java -cp target/benchmarks.jar com.softhouse.technicaltests.peopleporterpipeline.benchmarks.SyntheticInputGenerator \
+ *      --out camel/input/big.txt --size 10GB [--seed 42] [--malformed 0.001] [--family-members 0-3] [--field-length 12]
+ * </pre>
+ */
+@Getter
+@Builder
+public class SyntheticInputGenerator {
+
+    private static final String[] MALFORMED_LINES = {"X|unsupported|line", "T|", "F|Nobody"};
+
+    @Builder.Default
+    private final long seed = 42;
+
+    @Builder.Default
+    private final int minFamilyMembers = 0;
+
+    @Builder.Default
+    private final int maxFamilyMembers = 3;
+
+    @Builder.Default
+    private final int fieldLength = 12;
+
+    @Builder.Default
+    private final double malformedRatio = 0.0;
+
+    /**
+     * Summary of a generated file.
+     */
+    public record Result(long bytes, long persons, long malformedBlocks) {
+    }
+
+    /**
+     * Writes blocks to {@code file} until it is at least {@code targetBytes} long.
+     */
+    public Result write(Path file, long targetBytes) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return write(writer, targetBytes);
+        }
+    }
+
+    public Result write(Writer writer, long targetBytes) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder block = new StringBuilder(256);
+        long bytes = 0;
+        long persons = 0;
+        long malformed = 0;
+
+        while (bytes < targetBytes) {
+            block.setLength(0);
+            if (appendBlock(block, random)) {
+                malformed++;
+            }
+            writer.append(block);
+            // Generated content is ASCII only, so chars equal bytes
+            bytes += block.length();
+            persons++;
+        }
+        return new Result(bytes, persons, malformed);
+    }
+
+    /**
+     * Appends one person block, each line terminated by {@code \n}.
+     *
+     * @return whether a malformed line was included
+     */
+    public boolean appendBlock(StringBuilder block, SplittableRandom random) {
+        block.append("P|");
+        appendWord(block, random);
+        block.append('|');
+        appendWord(block, random);
+        block.append('\n');
+        appendPhone(block, random);
+        appendAddress(block, random);
+
+        int familyMembers = minFamilyMembers + random.nextInt(maxFamilyMembers - minFamilyMembers + 1);
+        for (int i = 0; i < familyMembers; i++) {
+            block.append("F|");
+            appendWord(block, random);
+            block.append('|').append(1900 + random.nextInt(125)).append('\n');
+            appendAddress(block, random);
+            appendPhone(block, random);
+        }
+
+        if (malformedRatio > 0 && random.nextDouble() < malformedRatio) {
+            block.append(MALFORMED_LINES[random.nextInt(MALFORMED_LINES.length)]).append('\n');
+            return true;
+        }
+        return false;
+    }
+
+    private void appendPhone(StringBuilder block, SplittableRandom random) {
+        block.append("T|07");
+        appendDigits(block, random, fieldLength - 2);
+        block.append("|08-");
+        appendDigits(block, random, fieldLength - 3);
+        block.append('\n');
+    }
+
+    private void appendAddress(StringBuilder block, SplittableRandom random) {
+        block.append("A|");
+        appendWord(block, random);
+        block.append('|');
+        appendWord(block, random);
+        block.append('|');
+        appendDigits(block, random, 5);
+        block.append('\n');
+    }
+
+    private void appendWord(StringBuilder block, SplittableRandom random) {
+        block.append((char) ('A' + random.nextInt(26)));
+        for (int i = 1; i < fieldLength; i++) {
+            block.append(i % 7 == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+    }
+
+    private static void appendDigits(StringBuilder block, SplittableRandom random, int count) {
+        for (int i = 0; i < count; i++) {
+            block.append((char) ('0' + random.nextInt(10)));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        HarnessArguments arguments = new HarnessArguments(args);
+        int[] familyMembers = arguments.range("--family-members", 0, 3);
+
+        SyntheticInputGenerator generator = builder()
+                .seed(arguments.longValue("--seed", 42))
+                .minFamilyMembers(familyMembers[0])
+                .maxFamilyMembers(familyMembers[1])
+                .fieldLength(arguments.intValue("--field-length", 12))
+                .malformedRatio(arguments.doubleValue("--malformed", 0.0))
+                .build();
+
+        Path out = Path.of(arguments.required("--out"));
+        Result result = generator.write(out, HarnessArguments.parseSize(arguments.value("--size", "1MB")));
+        System.out.printf("Wrote %s: %d bytes, %d persons, %d malformed blocks%n",
+                out, result.bytes(), result.persons(), result.malformedBlocks());
+    }
+}
@@ -0,0 +1,112 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.input.InputLine;
+import com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.BuildPersonProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.InputLineParser;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic input shared by all stage benchmarks, generated by {@link SyntheticInputGenerator}.
+ * <p>
+ * The same data is prepared in every representation a stage consumes: the whole file as text, one string and one
+ * byte slice per person block, parsed {@link InputLine} lists, built {@link Person} objects and an aggregated
+ * {@link People}. Each benchmark processes all {@link #PERSONS} persons per invocation.
+ * <ul>
+ *     <li>{@code familyMembers} - family members per person, each with a phone and an address line, which drives
+ *     the block size ({@code 3 + 3 * familyMembers} lines)</li>
+ *     <li>{@code fieldLength} - length of every generated field value</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class SyntheticPeopleState {
+
+    public static final int PERSONS = 1000;
+
+    @Param({"0", "2", "8"})
+    public int familyMembers;
+
+    @Param({"8", "32", "128"})
+    public int fieldLength;
+
+    public CamelContext context;
+    public String fileContent;
+    public List<String> blocks;
+    public List<PersonBlockBytes> byteBlocks;
+    public List<List<InputLine>> parsedBlocks;
+    public List<Person> persons;
+    public People people;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+
+        SyntheticInputGenerator generator = SyntheticInputGenerator.builder()
+                .minFamilyMembers(familyMembers)
+                .maxFamilyMembers(familyMembers)
+                .fieldLength(fieldLength)
+                .build();
+        SplittableRandom random = new SplittableRandom(generator.getSeed());
+        StringBuilder file = new StringBuilder();
+        StringBuilder block = new StringBuilder();
+        blocks = new ArrayList<>(PERSONS);
+        byteBlocks = new ArrayList<>(PERSONS);
+
+        for (int i = 0; i < PERSONS; i++) {
+            block.setLength(0);
+            generator.appendBlock(block, random);
+            file.append(block);
+            // Blocks as emitted by the splitter have no trailing line break
+            String personBlock = block.substring(0, block.length() - 1);
+            blocks.add(personBlock);
+            byteBlocks.add(new PersonBlockBytes(ByteBuffer.wrap(personBlock.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+        }
+        fileContent = file.toString();
+
+        parsedBlocks = new ArrayList<>(PERSONS);
+        persons = new ArrayList<>(PERSONS);
+        people = new People();
+        InputLineParser parser = new InputLineParser();
+        BuildPersonProcessor builder = new BuildPersonProcessor();
+        for (String personBlock : blocks) {
+            Exchange exchange = exchange(personBlock);
+            parser.process(exchange);
+            @SuppressWarnings("unchecked")
+            List<InputLine> lines = exchange.getIn().getBody(List.class);
+            parsedBlocks.add(lines);
+            builder.process(exchange);
+            Person person = exchange.getIn().getBody(Person.class);
+            persons.add(person);
+            people.getPeople().add(person);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    public Exchange exchange(Object body) {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+}
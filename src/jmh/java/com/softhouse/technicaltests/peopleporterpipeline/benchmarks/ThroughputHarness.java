@@ -0,0 +1,238 @@
+package com.softhouse.technicaltests.peopleporterpipeline.benchmarks;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.AggregationLayout;
+import com.softhouse.technicaltests.peopleporterpipeline.config.ExecutorKind;
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.ParserKind;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineTopology;
+import com.softhouse.technicaltests.peopleporterpipeline.routes.PeoplePorterRoute;
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.util.json.JsonArray;
+import org.apache.camel.util.json.JsonObject;
+import org.apache.camel.util.json.Jsoner;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * End-to-end throughput harness for the full Camel pipeline.
+ * <p>
+ * For every requested size, a synthetic file is generated with {@link SyntheticInputGenerator} into a staging folder,
+ * a fresh Camel context with {@link PeoplePorterRoute} is started on a work folder laid out like {@code camel/}, and the
+ * file is atomically moved into its {@code input} folder. The run ends when the input has been moved to {@code error}, or when it has been moved to
+ * {@code processed} and the output file exists. Aggregated output is completed on the aggregator thread after the
+ * input has been moved, so it is written through a temp file to make it appear atomically.
+ * <p>
+ * Each run records wall-clock time, persons/s, bytes/s, peak heap (sum of the peaks of all heap memory pools) and peak
+ * RSS ({@code VmHWM}, reset before each run where the kernel allows it), and all runs are written to a JSON report.
+ * <pre>
+ * java -cp target/benchmarks.jar com.softhouse.technicaltests.peopleporterpipeline.benchmarks.ThroughputHarness \
+ *      [--sizes 1MB,100MB,1GB] [--work-dir target/throughput] [--report target/throughput/report.json] \
+ *      [--output AGGREGATE|STREAMING] [--parser STRING|MAPPED_BYTES] [--topology CLASSIC|FUSED|STAGED] [--split-batch-size 1] \
+ *      [--parallelism 0] [--executor PLATFORM_THREADS|VIRTUAL_THREADS] [--stage-queue-capacity 1024] \
+ *      [--spill-threshold 0] [--dictionary-size 0] [--layout BEANS|COLUMNAR] [--format XML|JSON_LINES|BINARY] \
+ *      [--delta-dir none] [--reject-dir none] [--malformed 0.0] [--family-members 0-3] [--field-length 12] [--seed 42] [--timeout-seconds 3600]
+ * </pre>
+ * A {@code --parallelism} above zero enables parallel processing with that many workers, and a
+ * {@code --spill-threshold} above zero spills aggregation groups beyond that many persons to {@code <work-dir>/spill}.
+ * {@code --delta-dir} enables delta mode with its index in that directory, which is kept between invocations, and
+ * {@code --reject-dir} rejects malformed person blocks to that directory instead of failing the whole file.
+ */
+public class ThroughputHarness {
+
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    private final Path workDir;
+    private final PipelineOptions options;
+    private final SyntheticInputGenerator generator;
+    private final long timeoutMillis;
+
+    public ThroughputHarness(Path workDir, PipelineOptions options, SyntheticInputGenerator generator, long timeoutMillis) {
+        this.workDir = workDir;
+        this.options = options;
+        this.generator = generator;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public JsonObject run(String size) throws Exception {
+        String fileName = "throughput-" + size.toLowerCase() + ".txt";
+        Path staged = workDir.resolve("staging").resolve(fileName);
+        SyntheticInputGenerator.Result generated = generator.write(staged, HarnessArguments.parseSize(size));
+
+        Path inputDir = workDir.resolve("input");
+        Path processed = workDir.resolve("processed").resolve(fileName);
+        Path failed = workDir.resolve("error").resolve(fileName);
+        String extension = "." + options.getOutputFormat().getFileExtension();
+        Path output = workDir.resolve("output").resolve(fileName.replace(".txt", extension));
+        Files.createDirectories(inputDir);
+        Files.deleteIfExists(processed);
+        Files.deleteIfExists(failed);
+        Files.deleteIfExists(output);
+
+        try (CamelContext context = new DefaultCamelContext()) {
+            if (options.getAggregationSpillThreshold() > 0) {
+                // Spool the marshalled document next to the spill files, rather than buffering it on the heap
+                context.getStreamCachingStrategy().setSpoolEnabled(true);
+                context.getStreamCachingStrategy().setSpoolDirectory(options.getAggregationSpillDirectory().toFile());
+            }
+            context.addRoutes(new PeoplePorterRoute(
+                    "file:" + inputDir + "?include=.*\\.txt&move=../processed&initialDelay=0&delay=" + POLL_INTERVAL_MILLIS,
+                    "file:" + workDir.resolve("output") + "?fileName=${file:name.noext}" + extension
+                            + "&tempFileName=${file:name.noext}" + extension + ".tmp",
+                    "file:" + workDir.resolve("error"),
+                    options));
+            context.start();
+
+            System.gc();
+            resetPeaks();
+
+            long start = System.nanoTime();
+            Files.move(staged, inputDir.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+            String outcome = awaitCompletion(processed, output, failed);
+            long elapsedNanos = System.nanoTime() - start;
+
+            double seconds = elapsedNanos / 1e9;
+            JsonObject run = new JsonObject();
+            run.put("size", size);
+            run.put("bytes", generated.bytes());
+            run.put("persons", generated.persons());
+            run.put("malformedBlocks", generated.malformedBlocks());
+            run.put("outcome", outcome);
+            run.put("wallClockMillis", elapsedNanos / 1_000_000);
+            run.put("personsPerSecond", Math.round(generated.persons() / seconds));
+            run.put("bytesPerSecond", Math.round(generated.bytes() / seconds));
+            run.put("peakHeapBytes", peakHeapBytes());
+            run.put("peakRssBytes", peakRssBytes());
+            return run;
+        }
+    }
+
+    private String awaitCompletion(Path processed, Path output, Path failed) throws InterruptedException, TimeoutException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            if (Files.exists(processed) && Files.exists(output)) {
+                return "processed";
+            }
+            if (Files.exists(failed)) {
+                return "error";
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        throw new TimeoutException("Input was not processed within " + timeoutMillis + " ms");
+    }
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        try {
+            // Linux: resets VmHWM to the current RSS
+            Files.writeString(Path.of("/proc/self/clear_refs"), "5");
+        } catch (IOException | UnsupportedOperationException e) {
+            // Not available on this platform, peak RSS then covers the whole JVM lifetime
+        }
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long peakRssBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException e) {
+            // Not available on this platform
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessArguments arguments = new HarnessArguments(args);
+        int parallelism = arguments.intValue("--parallelism", 0);
+        int[] familyMembers = arguments.range("--family-members", 0, 3);
+
+        PipelineOptions.PipelineOptionsBuilder options = PipelineOptions.builder()
+                .outputMode(arguments.enumValue("--output", OutputMode.class, OutputMode.AGGREGATE))
+                .parserKind(arguments.enumValue("--parser", ParserKind.class, ParserKind.STRING))
+                .topology(arguments.enumValue("--topology", PipelineTopology.class, PipelineTopology.CLASSIC))
+                .splitBatchSize(arguments.intValue("--split-batch-size", 1))
+                .executorKind(arguments.enumValue("--executor", ExecutorKind.class, ExecutorKind.PLATFORM_THREADS))
+                .stageQueueCapacity(arguments.intValue("--stage-queue-capacity", 1024))
+                .valueDictionarySize(arguments.intValue("--dictionary-size", 0))
+                .aggregationLayout(arguments.enumValue("--layout", AggregationLayout.class, AggregationLayout.BEANS))
+                .outputFormat(arguments.enumValue("--format", OutputFormat.class, OutputFormat.XML));
+        if (parallelism > 0) {
+            options.parallelProcessing(true).parallelism(parallelism);
+        }
+
+        SyntheticInputGenerator generator = SyntheticInputGenerator.builder()
+                .seed(arguments.longValue("--seed", 42))
+                .minFamilyMembers(familyMembers[0])
+                .maxFamilyMembers(familyMembers[1])
+                .fieldLength(arguments.intValue("--field-length", 12))
+                .malformedRatio(arguments.doubleValue("--malformed", 0.0))
+                .build();
+
+        Path workDir = Path.of(arguments.value("--work-dir", "target/throughput"));
+        int spillThreshold = arguments.intValue("--spill-threshold", 0);
+        if (spillThreshold > 0) {
+            Path spillDir = Files.createDirectories(workDir.resolve("spill"));
+            options.aggregationSpillThreshold(spillThreshold).aggregationSpillDirectory(spillDir);
+        }
+        String deltaDir = arguments.value("--delta-dir", "none");
+        if (!deltaDir.equals("none")) {
+            options.deltaDirectory(Path.of(deltaDir));
+        }
+        String rejectDir = arguments.value("--reject-dir", "none");
+        if (!rejectDir.equals("none")) {
+            options.rejectDirectory(Path.of(rejectDir));
+        }
+        Path report = Path.of(arguments.value("--report", workDir.resolve("report.json").toString()));
+        List<String> sizes = arguments.list("--sizes", "1MB,100MB");
+        PipelineOptions pipelineOptions = options.build();
+
+        ThroughputHarness harness = new ThroughputHarness(workDir, pipelineOptions, generator,
+                arguments.longValue("--timeout-seconds", 3600) * 1000);
+
+        JsonArray runs = new JsonArray();
+        for (String size : sizes) {
+            JsonObject run = harness.run(size);
+            System.out.println(run.toJson());
+            runs.add(run);
+        }
+
+        JsonObject result = new JsonObject();
+        result.put("timestamp", Instant.now().toString());
+        result.put("javaVersion", System.getProperty("java.version"));
+        result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        result.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        result.put("options", pipelineOptions.toString());
+        result.put("runs", runs);
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, Jsoner.prettyPrint(result.toJson()), StandardCharsets.UTF_8);
+        System.out.println("Report written to " + report);
+    }
+}
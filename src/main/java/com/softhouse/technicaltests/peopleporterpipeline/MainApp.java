@@ -1,20 +1,94 @@
 package com.softhouse.technicaltests.peopleporterpipeline;
 
+import com.softhouse.technicaltests.peopleporterpipeline.batch.PeopleFileConverter;
+import com.softhouse.technicaltests.peopleporterpipeline.batch.ShardedFileConverter;
 import com.softhouse.technicaltests.peopleporterpipeline.routes.PeoplePorterRoute;
 import org.apache.camel.CamelContext;
 import org.apache.camel.impl.DefaultCamelContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Entry point for the PeoplePorterPipeline application.
- * Initializes the Camel context and loads the main route.
+ * <p>
+ * Without arguments, initializes the Camel context and loads the main route, which keeps polling its input folder.
+ * With {@code <input> <output>}, converts that one file with a {@link PeopleFileConverter} and exits with
+ * {@link #EXIT_OK}, {@link #EXIT_FAILED} if the conversion failed, or {@link #EXIT_USAGE} if the arguments are invalid.
+ * With {@code --shards <count> <input> <output>}, the file is converted by that many worker processes with a
+ * {@link ShardedFileConverter}; each worker is started with {@code --range <start> <end> <input> <output>} and converts
+ * only that byte range of the input.
  */
 public class MainApp {
 
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    public static final String SHARDS_OPTION = "--shards";
+    public static final String RANGE_OPTION = "--range";
+
+    static final int SHARD_ATTEMPTS = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(MainApp.class);
+
     public static void main(String[] args) throws Exception {
-        try (CamelContext context = new DefaultCamelContext()) {
-            context.addRoutes(new PeoplePorterRoute());
-            context.start();
-            Thread.currentThread().join();
+        if (args.length == 0) {
+            try (CamelContext context = new DefaultCamelContext()) {
+                context.addRoutes(new PeoplePorterRoute());
+                context.start();
+                Thread.currentThread().join();
+            }
+        }
+        System.exit(convert(args));
+    }
+
+    static int convert(String[] args) {
+        int optionArgs = args.length > 0 && args[0].equals(SHARDS_OPTION) ? 2
+                : args.length > 0 && args[0].equals(RANGE_OPTION) ? 3
+                : 0;
+        if (args.length != optionArgs + 2) {
+            System.err.println("Usage: MainApp [[--shards <count>] <input file> <output file>]");
+            return EXIT_USAGE;
+        }
+        Path input = Path.of(args[optionArgs]);
+        Path output = Path.of(args[optionArgs + 1]);
+        if (!Files.isRegularFile(input)) {
+            System.err.println("Input file not found: " + input);
+            return EXIT_USAGE;
+        }
+
+        long[] numbers = new long[optionArgs];
+        try {
+            for (int i = 1; i < optionArgs; i++) {
+                numbers[i] = Long.parseLong(args[i]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (optionArgs == 2 && (numbers[1] < 1 || numbers[1] > Integer.MAX_VALUE)) {
+            System.err.println("Shard count must be a positive number: " + args[1]);
+            return EXIT_USAGE;
+        }
+
+        try {
+            if (optionArgs == 0) {
+                PeopleFileConverter converter = new PeopleFileConverter();
+                converter.warmUp();
+                converter.convert(input, output);
+            } else if (args[0].equals(SHARDS_OPTION)) {
+                new ShardedFileConverter((int) numbers[1], SHARD_ATTEMPTS, Duration.ZERO).convert(input, output);
+            } else {
+                new PeopleFileConverter().convert(input, numbers[1], numbers[2], output);
+            }
+            return EXIT_OK;
+        } catch (Exception e) {
+            log.error("Failed to convert {} to {}", input, output, e);
+            return EXIT_FAILED;
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.softhouse.technicaltests.peopleporterpipeline.aggregators;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.PeopleColumns;
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Aggregation strategy that appends each incoming {@link Person} to a columnar {@link PeopleColumns} container.
+ * <p>
+ * Behaves like {@link PeopleAggregationStrategy}, except that the person's fields are copied into the columns and the
+ * {@code Person} itself is not retained, so a large group costs a few array slots per field instead of a graph of beans.
+ */
+public class ColumnarPeopleAggregationStrategy implements AggregationStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarPeopleAggregationStrategy.class);
+
+    @Override
+    public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+        List<?> newPersons = PeopleAggregationStrategy.newPersons(newExchange);
+
+        if (oldExchange == null) {
+            // First aggregation
+            PeopleColumns people = new PeopleColumns();
+            for (Object newPerson : newPersons) {
+                people.append((Person) newPerson);
+            }
+
+            log.debug("Started columnar People aggregation with: {}", newPersons);
+
+            newExchange.getIn().setBody(people);
+            return newExchange;
+        }
+
+        // Continuing aggregation
+        PeopleColumns people = oldExchange.getIn().getBody(PeopleColumns.class);
+        for (Object newPerson : newPersons) {
+            people.append((Person) newPerson);
+        }
+
+        log.debug("Added Person to columnar People aggregation: {}", newPersons);
+
+        return oldExchange;
+    }
+}
@@ -1,5 +1,6 @@
 package com.softhouse.technicaltests.peopleporterpipeline.aggregators;
 
+import com.softhouse.technicaltests.peopleporterpipeline.common.MicroBatch;
 import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
 import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
 import com.softhouse.technicaltests.peopleporterpipeline.exception.PeopleAggregationStrategyException;
@@ -8,13 +9,16 @@ import org.apache.camel.Exchange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Aggregation strategy that combines multiple {@link Person} objects into a single {@link People} container.
  * <p>
  * This class is used by Apache Camel's {@code aggregate()} DSL to collect individual {@code Person}
  * instances into one {@code People} object, which will later be marshalled to XML.
  * <p>
- * The strategy assumes each incoming {@link Exchange} contains a single {@code Person} object.
+ * The strategy assumes each incoming {@link Exchange} contains a single {@code Person} object, or a
+ * {@link MicroBatch} of persons, which are added one by one in batch order.
  * It handles two cases:
  * <ul>
  *     <li>When {@code oldExchange} is {@code null} (i.e., the first exchange in the group), a new
@@ -37,19 +41,17 @@ public class PeopleAggregationStrategy implements AggregationStrategy {
 
     @Override
     public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
-        Person newPerson = newExchange.getIn().getBody(Person.class);
-
-        if (newPerson == null) {
-            throw new PeopleAggregationStrategyException("New Person is null. Cannot aggregate.");
-        }
+        List<?> newPersons = newPersons(newExchange);
 
         People people;
         if (oldExchange == null) {
             // First aggregation
             people = new People();
-            people.getPeople().add(newPerson);
+            for (Object newPerson : newPersons) {
+                people.getPeople().add((Person) newPerson);
+            }
 
-            log.debug("Started People aggregation with: {}", newPerson);
+            log.debug("Started People aggregation with: {}", newPersons);
 
             newExchange.getIn().setBody(people);
             return newExchange;
@@ -57,11 +59,28 @@ public class PeopleAggregationStrategy implements AggregationStrategy {
 
         // Continuing aggregation
         people = oldExchange.getIn().getBody(People.class);
-        people.getPeople().add(newPerson);
+        for (Object newPerson : newPersons) {
+            people.getPeople().add((Person) newPerson);
+        }
 
-        log.debug("Added Person to People aggregation: {}", newPerson);
+        log.debug("Added Person to People aggregation: {}", newPersons);
 
         oldExchange.getIn().setBody(people);
         return oldExchange;
     }
+
+    /**
+     * Returns the persons carried by the exchange: the items of a {@link MicroBatch} body, or the single person body.
+     */
+    static List<?> newPersons(Exchange newExchange) {
+        if (newExchange.getIn().getBody() instanceof MicroBatch batch) {
+            return batch.items();
+        }
+        Person newPerson = newExchange.getIn().getBody(Person.class);
+
+        if (newPerson == null) {
+            throw new PeopleAggregationStrategyException("New Person is null. Cannot aggregate.");
+        }
+        return List.of(newPerson);
+    }
 }
@@ -0,0 +1,110 @@
+package com.softhouse.technicaltests.peopleporterpipeline.aggregators;
+
+import org.apache.camel.Exchange;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Restores the input order of person exchanges that were parsed and built in parallel.
+ * <p>
+ * Each exchange is offered together with its sequence number (the splitter's {@code CamelSplitIndex}).
+ * Exchanges arriving ahead of their turn are parked; whichever thread fills the gap releases every
+ * consecutive exchange downstream, so the aggregator (or streaming writer) sees persons strictly in
+ * input order, one at a time.
+ * <p>
+ * Only one thread releases exchanges at a time. A thread that cannot take the release lock simply
+ * returns, and the releasing thread re-checks for newly arrived exchanges after unlocking, so no
+ * exchange is left behind. One instance is used per input file.
+ * <p>
+ * At most {@code capacity} exchanges are parked: the splitter calls {@link #awaitCapacity(int)} before handing out a
+ * block, which waits while that block is {@code capacity} or more indexes ahead of the next exchange due. A slow block
+ * therefore holds the splitter back, instead of letting the rest of the file pile up on the heap. The threads offering
+ * exchanges never wait, as the exchange they are missing may still be queued behind them. Once the file has
+ * {@link #fail() failed}, the splitter stops waiting and exchanges offered later are dropped.
+ */
+public class PersonResequencer {
+
+    private final ConcurrentSkipListMap<Integer, Exchange> pending = new ConcurrentSkipListMap<>();
+    private final ReentrantLock releaseLock = new ReentrantLock();
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private final Condition released = capacityLock.newCondition();
+    private final int capacity;
+
+    private volatile int nextIndex;
+    private volatile boolean failed;
+
+    public PersonResequencer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Resequencer capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(int index, Exchange exchange, Consumer<Exchange> downstream) {
+        if (failed) {
+            return;
+        }
+        pending.put(index, exchange);
+
+        do {
+            if (!releaseLock.tryLock()) {
+                return;
+            }
+            int releasedFrom = nextIndex;
+            try {
+                Exchange next;
+                while (!failed && (next = pending.remove(nextIndex)) != null) {
+                    nextIndex++;
+                    downstream.accept(next);
+                }
+            } finally {
+                releaseLock.unlock();
+                if (nextIndex != releasedFrom) {
+                    signalReleased();
+                }
+            }
+        } while (!failed && pending.containsKey(nextIndex));
+    }
+
+    /**
+     * Waits until the exchange with sequence number {@code index} can be parked without exceeding the capacity.
+     *
+     * @return {@code false} if the file failed, so no more blocks should be handed out
+     */
+    public boolean awaitCapacity(int index) throws InterruptedException {
+        capacityLock.lock();
+        try {
+            while (!failed && index - nextIndex >= capacity) {
+                released.await();
+            }
+            return !failed;
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the file as failed, dropping the parked exchanges and releasing a splitter waiting for capacity.
+     */
+    public void fail() {
+        failed = true;
+        pending.clear();
+        signalReleased();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void signalReleased() {
+        capacityLock.lock();
+        try {
+            released.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+}
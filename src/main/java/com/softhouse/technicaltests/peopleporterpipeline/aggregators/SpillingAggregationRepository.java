@@ -0,0 +1,80 @@
+package com.softhouse.technicaltests.peopleporterpipeline.aggregators;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.processor.aggregate.MemoryAggregationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * An in-memory aggregation repository that moves large {@link People} groups to disk.
+ * <p>
+ * Groups are kept in memory exactly like {@link MemoryAggregationRepository} does. Once a group's {@code People}
+ * reaches {@code threshold} persons, its list is replaced by a {@link SpillingPersonList}, which from then on keeps at
+ * most {@code threshold} persons on the heap and appends the rest to a spill file in {@code directory}. The threshold
+ * therefore bounds the heap used per group; the aggregation strategy keeps appending to the list unchanged.
+ * <p>
+ * The spill file lives as long as the {@code People} document: it is deleted by {@link #release(People)}, once the
+ * completed group has been marshalled, or by {@link #release(CamelContext, String)} when a group is discarded.
+ */
+public class SpillingAggregationRepository extends MemoryAggregationRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillingAggregationRepository.class);
+
+    private final Path directory;
+    private final int threshold;
+
+    public SpillingAggregationRepository(Path directory, int threshold) {
+        this.directory = directory;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Exchange add(CamelContext camelContext, String key, Exchange exchange) {
+        spillIfNeeded(exchange);
+        return super.add(camelContext, key, exchange);
+    }
+
+    @Override
+    public Exchange add(CamelContext camelContext, String key, Exchange oldExchange, Exchange newExchange) {
+        spillIfNeeded(newExchange);
+        return super.add(camelContext, key, oldExchange, newExchange);
+    }
+
+    /**
+     * Deletes the spill file of the group stored under {@code key}, if any, before the group is discarded.
+     */
+    public void release(CamelContext camelContext, String key) {
+        Exchange group = get(camelContext, key);
+        if (group != null && group.getIn().getBody() instanceof People people) {
+            release(people);
+        }
+    }
+
+    /**
+     * Deletes the spill file backing {@code people}, if any.
+     */
+    public static void release(People people) {
+        if (people.getPeople() instanceof SpillingPersonList spilling) {
+            try {
+                spilling.close();
+            } catch (IOException e) {
+                log.warn("Failed to delete spilled persons", e);
+            }
+        }
+    }
+
+    private void spillIfNeeded(Exchange exchange) {
+        if (exchange.getIn().getBody() instanceof People people
+                && !(people.getPeople() instanceof SpillingPersonList)
+                && people.getPeople().size() >= threshold) {
+            SpillingPersonList spilling = new SpillingPersonList(directory, threshold);
+            spilling.addAll(people.getPeople());
+            exchange.getIn().setBody(new People(spilling));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.softhouse.technicaltests.peopleporterpipeline.aggregators;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PersonBinaryCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An append-only list of persons that keeps at most {@code threshold} persons on the heap.
+ * <p>
+ * Whenever the in-memory buffer reaches the threshold, its persons are appended to a spill file in the
+ * {@link PersonBinaryCodec} encoding and the buffer is cleared. Iteration streams the spilled persons back from the file,
+ * one at a time and in insertion order, followed by the buffered ones, so marshalling a {@code People} document
+ * backed by this list needs a fixed amount of heap however many persons it holds.
+ * <p>
+ * Only appending and iterating are efficient; {@link #get(int)} of a spilled person reads the file up to that person.
+ * The list is not thread-safe, which matches how the aggregator updates a group under its lock. {@link #close()}
+ * deletes the spill file.
+ */
+public class SpillingPersonList extends AbstractList<Person> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillingPersonList.class);
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int threshold;
+    private final List<Person> buffer;
+
+    private Path spillFile;
+    private DataOutputStream spill;
+    private int spilledCount;
+
+    public SpillingPersonList(Path directory, int threshold) {
+        this.directory = directory;
+        this.threshold = threshold;
+        this.buffer = new ArrayList<>();
+    }
+
+    @Override
+    public boolean add(Person person) {
+        buffer.add(person);
+        modCount++;
+        if (buffer.size() >= threshold) {
+            spillBuffer();
+        }
+        return true;
+    }
+
+    @Override
+    public Person get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        if (index >= spilledCount) {
+            return buffer.get(index - spilledCount);
+        }
+        Iterator<Person> it = iterator();
+        for (int i = 0; i < index; i++) {
+            it.next();
+        }
+        return it.next();
+    }
+
+    @Override
+    public int size() {
+        return spilledCount + buffer.size();
+    }
+
+    @Override
+    public Iterator<Person> iterator() {
+        if (spilledCount == 0) {
+            return buffer.iterator();
+        }
+        return new SpilledIterator();
+    }
+
+    public int getSpilledCount() {
+        return spilledCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+            spill = null;
+        }
+        if (spillFile != null) {
+            Files.deleteIfExists(spillFile);
+            spillFile = null;
+        }
+    }
+
+    private void spillBuffer() {
+        try {
+            if (spill == null) {
+                spillFile = Files.createTempFile(directory, "people-", ".spill");
+                spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile), IO_BUFFER_SIZE));
+                log.info("Spilling aggregated persons to {} beyond {} in memory", spillFile, threshold);
+            }
+            for (Person person : buffer) {
+                PersonBinaryCodec.write(person, spill);
+            }
+            spilledCount += buffer.size();
+            buffer.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill persons to " + spillFile, e);
+        }
+    }
+
+    // Reads the spill file from the start, then continues with the in-memory buffer
+    private class SpilledIterator implements Iterator<Person> {
+
+        private final int expectedModCount = modCount;
+        private final DataInputStream in;
+        private final Iterator<Person> buffered = buffer.iterator();
+
+        private int remaining = spilledCount;
+
+        SpilledIterator() {
+            try {
+                spill.flush();
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile), IO_BUFFER_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read spilled persons from " + spillFile, e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 || buffered.hasNext();
+        }
+
+        @Override
+        public Person next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                return buffered.next();
+            }
+            try {
+                Person person = PersonBinaryCodec.read(in);
+                if (--remaining == 0) {
+                    in.close();
+                }
+                return person;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read spilled persons from " + spillFile, e);
+            }
+        }
+    }
+}
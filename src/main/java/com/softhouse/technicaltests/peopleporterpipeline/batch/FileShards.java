@@ -0,0 +1,96 @@
+package com.softhouse.technicaltests.peopleporterpipeline.batch;
+
+import com.softhouse.technicaltests.peopleporterpipeline.processors.SplitPersonBlocksProcessor;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an input file into byte ranges ({@link Shard}s) that each hold whole person blocks, so that they can be
+ * converted independently and their outputs concatenated in order.
+ *
+ * <p>The file is cut into ranges of roughly equal size. Each cut is then moved forward to the start of the next line
+ * for which {@link SplitPersonBlocksProcessor#isPersonLine(String)} holds, the same rule the splitters use, so no block
+ * is divided between two shards. A cut that runs into the next one or into the end of the file is dropped, so a file
+ * with few or very large blocks yields fewer shards than requested. The ranges are adjacent and cover the whole file.</p>
+ */
+public final class FileShards {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private FileShards() {
+    }
+
+    /**
+     * A range of the input file from {@code start} (inclusive) to {@code end} (exclusive), the {@code index}th in file order.
+     */
+    public record Shard(int index, long start, long end) {
+
+        public long length() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Plans at most {@code shardCount} shards of {@code input}. An empty file yields a single empty shard.
+     */
+    public static List<Shard> plan(Path input, int shardCount) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+        }
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Shard> shards = new ArrayList<>(shardCount);
+            long start = 0;
+            for (int i = 1; i < shardCount && start < size; i++) {
+                long cut = personLineAtOrAfter(channel, Math.max(size * i / shardCount, start + 1), size);
+                if (cut >= size) {
+                    break;
+                }
+                shards.add(new Shard(shards.size(), start, cut));
+                start = cut;
+            }
+            shards.add(new Shard(shards.size(), start, size));
+            return shards;
+        }
+    }
+
+    /**
+     * Returns the offset of the first person line starting at or after {@code offset}, or {@code size} if there is none.
+     */
+    private static long personLineAtOrAfter(FileChannel channel, long offset, long size) throws IOException {
+        // Start from the preceding byte, so a line starting exactly at the offset is found as well
+        channel.position(offset - 1);
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER_SIZE);
+        long position = offset - 1;
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            position++;
+        }
+        long lineStart = position + 1;
+
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (lineStart < size) {
+            line.reset();
+            long lineEnd = lineStart;
+            while ((b = in.read()) >= 0 && b != '\n') {
+                line.write(b);
+                lineEnd++;
+            }
+            if (SplitPersonBlocksProcessor.isPersonLine(line.toString(Charset.defaultCharset()))) {
+                return lineStart;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,223 @@
+package com.softhouse.technicaltests.peopleporterpipeline.batch;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.ConfigurableGzipOutputStream;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleWriter;
+import com.softhouse.technicaltests.peopleporterpipeline.output.StreamingPeopleOutput;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.FusedPersonBlockProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.PersonBlockIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.GZIP_SUFFIX;
+
+/**
+ * Converts a single input file to a single output file without starting Camel, for batch jobs that run one
+ * conversion per JVM and would otherwise spend most of their time bootstrapping the context and polling for input.
+ *
+ * <p>The conversion is the streaming, fused pipeline run inline on the calling thread: the input is split by a
+ * {@link PersonBlockIterator}, each block is built by {@link FusedPersonBlockProcessor}, and each {@link Person} is
+ * appended to a {@link StreamingPeopleOutput} as soon as it is built. The output is therefore identical to that of
+ * the route in {@code STREAMING} output mode, and memory use is bounded by the largest person block.</p>
+ *
+ * <p>Input files whose name ends with {@code .gz} are decompressed as they are read. The output format is selected by
+ * the extension of the output file name ({@code .xml}, {@code .jsonl} or {@code .bin}, defaulting to XML), and output
+ * whose name ends with {@code .gz} is gzip-compressed. If the conversion fails, the partial output is deleted.</p>
+ *
+ * <p>{@link #warmUp()} runs a sample person through the same code paths, so that class loading and initialization
+ * happen before the input is opened and are captured by an AppCDS training run.</p>
+ *
+ * <p>{@link #convert(Path, long, long, Path)} converts a byte range of the input, which is how the workers of a
+ * {@link ShardedFileConverter} convert their shard.</p>
+ */
+public class PeopleFileConverter {
+
+    private static final Logger log = LoggerFactory.getLogger(PeopleFileConverter.class);
+
+    private static final int INFLATE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String WARM_UP_BLOCK = String.join(System.lineSeparator(),
+            "P|Warm|Up",
+            "T|0768-101801|08-101801",
+            "A|Street 1|Stockholm|10001",
+            "F|Child|2001",
+            "T|0768-101802|08-101802",
+            "A|Street 2|Uppsala|75001");
+
+    private final FusedPersonBlockProcessor builder = new FusedPersonBlockProcessor();
+
+    /**
+     * Converts {@code input} to {@code output}, replacing any existing output.
+     *
+     * @return the number of persons written
+     */
+    public long convert(Path input, Path output) throws IOException {
+        return convert(openBlocks(input), input.toString(), output);
+    }
+
+    /**
+     * Converts the bytes of {@code input} from {@code start} (inclusive) to {@code end} (exclusive) to {@code output},
+     * as one shard of a {@link ShardedFileConverter}. Both offsets must be person block boundaries, see
+     * {@link FileShards#plan(Path, int)}. Compressed input cannot be converted by range.
+     *
+     * @return the number of persons written
+     */
+    public long convert(Path input, long start, long end, Path output) throws IOException {
+        if (input.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+            throw new IllegalArgumentException("Compressed input cannot be converted by byte range: " + input);
+        }
+        return convert(openBlocks(input, start, end), "%s [%d, %d)".formatted(input, start, end), output);
+    }
+
+    private long convert(PersonBlockIterator blocks, String source, Path output) throws IOException {
+        String outputName = output.getFileName().toString();
+        boolean compress = outputName.endsWith(GZIP_SUFFIX);
+        OutputFormat format = formatOf(compress ? outputName.substring(0, outputName.length() - GZIP_SUFFIX.length()) : outputName);
+
+        long personCount = 0;
+        try (blocks) {
+            StreamingPeopleOutput out = new StreamingPeopleOutput(output, null, Duration.ZERO, format, compress,
+                    Deflater.DEFAULT_COMPRESSION);
+            try {
+                while (blocks.hasNext()) {
+                    out.write(builder.build(blocks.next()));
+                    personCount++;
+                }
+                out.finish();
+            } catch (RuntimeException e) {
+                out.abort();
+                throw e;
+            }
+        }
+        log.info("Converted {} persons from {} to {}", personCount, source, output);
+        return personCount;
+    }
+
+    /**
+     * Builds a sample person and writes it in every output format, compressed and uncompressed, to a discarding stream.
+     */
+    public void warmUp() throws IOException {
+        Person person = builder.build(WARM_UP_BLOCK);
+        for (OutputFormat format : OutputFormat.values()) {
+            writeDiscarded(format.newWriter(OutputStream.nullOutputStream()), person);
+            writeDiscarded(format.newWriter(new ConfigurableGzipOutputStream(OutputStream.nullOutputStream(),
+                    Deflater.DEFAULT_COMPRESSION)), person);
+        }
+    }
+
+    static OutputFormat formatOf(String fileName) {
+        for (OutputFormat format : OutputFormat.values()) {
+            if (fileName.endsWith("." + format.getFileExtension())) {
+                return format;
+            }
+        }
+        return OutputFormat.XML;
+    }
+
+    private static PersonBlockIterator openBlocks(Path input) throws IOException {
+        InputStream in = Files.newInputStream(input);
+        if (input.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+            try {
+                in = new GZIPInputStream(in, INFLATE_BUFFER_SIZE);
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+        return newBlockIterator(in);
+    }
+
+    private static PersonBlockIterator openBlocks(Path input, long start, long end) throws IOException {
+        FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+        if (start < 0 || start > end || end > channel.size()) {
+            long size = channel.size();
+            channel.close();
+            throw new IllegalArgumentException("Range [%d, %d) is outside %s (%d bytes)".formatted(start, end, input, size));
+        }
+        channel.position(start);
+        return newBlockIterator(new RangeInputStream(Channels.newInputStream(channel), end - start));
+    }
+
+    private static PersonBlockIterator newBlockIterator(InputStream in) {
+        return new PersonBlockIterator(new BufferedReader(new InputStreamReader(in, Charset.defaultCharset())));
+    }
+
+    private static void writeDiscarded(PeopleWriter writer, Person person) throws IOException {
+        try (writer) {
+            writer.writeStart();
+            writer.writePerson(person);
+            writer.writeEnd();
+        }
+    }
+
+    /**
+     * Reads at most {@code remaining} bytes of the underlying stream, then reports end of stream.
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        RangeInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.softhouse.technicaltests.peopleporterpipeline.batch;
+
+import com.softhouse.technicaltests.peopleporterpipeline.MainApp;
+import com.softhouse.technicaltests.peopleporterpipeline.batch.FileShards.Shard;
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.ConfigurableGzipOutputStream;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.GZIP_SUFFIX;
+
+/**
+ * Converts a single large input file with several local worker JVMs, for files too large for one JVM to convert at
+ * the speed of the storage.
+ *
+ * <p>The input is split by {@link FileShards#plan(Path, int)} into byte ranges that each hold whole person blocks.
+ * Every shard is converted by its own worker process, started with {@link MainApp} in range mode, which runs a
+ * {@link PeopleFileConverter} on its range and writes a complete, uncompressed document of the output format to a shard
+ * file next to the output. Once every shard is converted, the documents are merged in shard order: the start of the
+ * document is written once, followed by the persons of every shard file and the end of the document. The merged output
+ * is therefore identical to that of a single {@link PeopleFileConverter}, compressed if its name ends with {@code .gz}.</p>
+ *
+ * <p>A worker that exits with a non-zero status, or runs longer than the worker timeout, is killed and its shard is
+ * converted again by a new worker, up to a maximum number of attempts. If a shard still fails, the conversion fails,
+ * and no output or shard file is left behind.</p>
+ */
+public class ShardedFileConverter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedFileConverter.class);
+
+    private final int shardCount;
+    private final int maxAttempts;
+    private final Duration workerTimeout;
+
+    /**
+     * @param shardCount    number of shards, and so of concurrent worker processes
+     * @param maxAttempts   number of times a shard is tried before the conversion fails
+     * @param workerTimeout time after which a worker is killed and its shard retried; zero waits indefinitely
+     */
+    public ShardedFileConverter(int shardCount, int maxAttempts, Duration workerTimeout) {
+        if (shardCount < 1 || maxAttempts < 1 || workerTimeout.isNegative()) {
+            throw new IllegalArgumentException("Invalid sharded conversion settings: %d shards, %d attempts, timeout %s"
+                    .formatted(shardCount, maxAttempts, workerTimeout));
+        }
+        this.shardCount = shardCount;
+        this.maxAttempts = maxAttempts;
+        this.workerTimeout = workerTimeout;
+    }
+
+    /**
+     * Converts {@code input} to {@code output}, replacing any existing output. Compressed input cannot be sharded.
+     */
+    public void convert(Path input, Path output) throws IOException {
+        if (input.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+            throw new IllegalArgumentException("Compressed input cannot be sharded: " + input);
+        }
+        String outputName = output.getFileName().toString();
+        boolean compress = outputName.endsWith(GZIP_SUFFIX);
+        String documentName = compress ? outputName.substring(0, outputName.length() - GZIP_SUFFIX.length()) : outputName;
+        OutputFormat format = PeopleFileConverter.formatOf(documentName);
+
+        List<Shard> shards = FileShards.plan(input, shardCount);
+        List<Path> shardFiles = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            shardFiles.add(output.resolveSibling(".shard-" + shard.index() + "." + documentName));
+        }
+        log.info("Converting {} in {} shards with up to {} attempts each", input, shards.size(), maxAttempts);
+
+        long startNanos = System.nanoTime();
+        try {
+            runWorkers(input, shards, shardFiles);
+            merge(shardFiles, format, output, compress);
+        } finally {
+            for (Path shardFile : shardFiles) {
+                Files.deleteIfExists(shardFile);
+            }
+        }
+        log.info("Converted {} to {} in {} shards in {} ms", input, output, shards.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Returns the command line of a worker converting {@code shard} of {@code input} to {@code shardFile}. The worker
+     * runs {@link MainApp} with the same Java runtime and class path as this JVM.
+     */
+    protected List<String> workerCommand(Path input, Shard shard, Path shardFile, int attempt) {
+        return List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                MainApp.class.getName(),
+                MainApp.RANGE_OPTION, Long.toString(shard.start()), Long.toString(shard.end()),
+                input.toString(), shardFile.toString());
+    }
+
+    private void runWorkers(Path input, List<Shard> shards, List<Path> shardFiles) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(shards.size());
+        try {
+            CompletionService<Void> workers = new ExecutorCompletionService<>(executor);
+            for (Shard shard : shards) {
+                workers.submit(() -> {
+                    convertShard(input, shard, shardFiles.get(shard.index()));
+                    return null;
+                });
+            }
+            // Taken in completion order, so a shard failing for good is reported without waiting for the others
+            for (int i = 0; i < shards.size(); i++) {
+                workers.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while converting " + input, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to convert " + input, e.getCause());
+        } finally {
+            // Kills the workers of the other shards if one of them failed for good
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    private void convertShard(Path input, Shard shard, Path shardFile) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            Process worker = new ProcessBuilder(workerCommand(input, shard, shardFile, attempt))
+                    .inheritIO()
+                    .start();
+            try {
+                int exitCode = awaitWorker(worker);
+                if (exitCode == MainApp.EXIT_OK && Files.isRegularFile(shardFile)) {
+                    log.info("Shard {} [{}, {}) of {} converted in attempt {}", shard.index(), shard.start(),
+                            shard.end(), input, attempt);
+                    return;
+                }
+                Files.deleteIfExists(shardFile);
+                if (attempt >= maxAttempts) {
+                    throw new IOException("Shard %d [%d, %d) of %s failed after %d attempts, last exit code %d"
+                            .formatted(shard.index(), shard.start(), shard.end(), input, attempt, exitCode));
+                }
+                log.warn("Worker of shard {} of {} failed with exit code {} in attempt {}, retrying", shard.index(),
+                        input, exitCode, attempt);
+            } finally {
+                // Never leaves a worker behind, whether it timed out or this thread was interrupted
+                worker.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Waits for {@code worker} to exit and returns its exit code, or {@code -1} if it did not exit within the timeout.
+     */
+    private int awaitWorker(Process worker) throws InterruptedException {
+        if (workerTimeout.isZero()) {
+            return worker.waitFor();
+        }
+        if (worker.waitFor(workerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return worker.exitValue();
+        }
+        log.warn("Worker {} did not finish within {}, killing it", worker.pid(), workerTimeout);
+        worker.destroyForcibly().waitFor();
+        return -1;
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the start of the document, the persons of every shard document in order, and the end of the document.
+     * The framing of the format is found by writing a sample person once as a whole document and once appended to a
+     * resumed one, which has no start, so the persons of a shard are the bytes of its document between that start and
+     * end. An empty document need not be the start followed by the end, e.g. {@code <people/>} in XML.
+     */
+    private static void merge(List<Path> shardFiles, OutputFormat format, Path output, boolean compress) throws IOException {
+        Person sample = new Person();
+        sample.setFirstname("Sample");
+        byte[] document = write(format, true, sample);
+        byte[] start = Arrays.copyOf(document, document.length - write(format, false, sample).length);
+        byte[] end = write(format, false, null);
+        byte[] empty = write(format, true, null);
+
+        boolean merged = false;
+        try (FileChannel target = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream compressed = compress
+                    ? new ConfigurableGzipOutputStream(Channels.newOutputStream(target), Deflater.DEFAULT_COMPRESSION)
+                    : null;
+            WritableByteChannel out = compress ? Channels.newChannel(compressed) : target;
+            out.write(ByteBuffer.wrap(start));
+            for (Path shardFile : shardFiles) {
+                copyPersons(shardFile, start, end, empty, out);
+            }
+            out.write(ByteBuffer.wrap(end));
+            if (compressed != null) {
+                compressed.close();
+            }
+            merged = true;
+        } finally {
+            if (!merged) {
+                Files.deleteIfExists(output);
+            }
+        }
+    }
+
+    private static void copyPersons(Path shardFile, byte[] start, byte[] end, byte[] empty, WritableByteChannel out)
+            throws IOException {
+        try (FileChannel shard = FileChannel.open(shardFile, StandardOpenOption.READ)) {
+            long size = shard.size();
+            if (size == empty.length && Arrays.equals(readBytes(shard, 0, empty.length), empty)) {
+                return;
+            }
+            if (size < start.length + end.length
+                    || !Arrays.equals(readBytes(shard, 0, start.length), start)
+                    || !Arrays.equals(readBytes(shard, size - end.length, end.length), end)) {
+                throw new IOException("Shard document is not complete: " + shardFile);
+            }
+            long position = start.length;
+            long limit = size - end.length;
+            while (position < limit) {
+                position += shard.transferTo(position, limit - position, out);
+            }
+        }
+    }
+
+    private static byte[] readBytes(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of shard document");
+            }
+        }
+        return buffer.array();
+    }
+
+    // Writes a document holding 'person' if not null, without its start when appending to a resumed document
+    private static byte[] write(OutputFormat format, boolean withStart, Person person) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PeopleWriter writer = format.newWriter(bytes)) {
+            if (withStart) {
+                writer.writeStart();
+            }
+            if (person != null) {
+                writer.writePerson(person);
+            }
+            writer.writeEnd();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package com.softhouse.technicaltests.peopleporterpipeline.checkpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Progress of a partially processed input file, persisted in a sidecar file next to its streaming output so that
+ * processing can resume after the JVM dies.
+ * <p>
+ * {@code inputOffset} is the byte offset just past the last person block whose person has been fully written, and
+ * {@code outputLength} and {@code personCount} describe the output at that point. The input is identified by its
+ * absolute path, length and last modification time; a checkpoint is only resumed if all three still match.
+ * <p>
+ * Checkpoints are saved to a temporary file which is synced and then atomically renamed over the previous one, so the
+ * sidecar always holds either the old or the new checkpoint, never a torn one.
+ */
+public record Checkpoint(String input, long inputLength, long inputLastModified,
+                         long inputOffset, long outputLength, long personCount) {
+
+    private static final String SUFFIX = ".checkpoint";
+
+    public static Path sidecarFor(Path output) {
+        return output.resolveSibling(output.getFileName() + SUFFIX);
+    }
+
+    public static Optional<Checkpoint> load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        try {
+            return Optional.of(new Checkpoint(
+                    properties.getProperty("input"),
+                    Long.parseLong(properties.getProperty("inputLength")),
+                    Long.parseLong(properties.getProperty("inputLastModified")),
+                    Long.parseLong(properties.getProperty("inputOffset")),
+                    Long.parseLong(properties.getProperty("outputLength")),
+                    Long.parseLong(properties.getProperty("personCount"))));
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt checkpoint " + file, e);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("input", input);
+        properties.setProperty("inputLength", Long.toString(inputLength));
+        properties.setProperty("inputLastModified", Long.toString(inputLastModified));
+        properties.setProperty("inputOffset", Long.toString(inputOffset));
+        properties.setProperty("outputLength", Long.toString(outputLength));
+        properties.setProperty("personCount", Long.toString(personCount));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            properties.store(out, null);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns whether this checkpoint was taken for the given input, unchanged since, and its output is still at least
+     * as long as recorded.
+     */
+    public boolean isResumableFor(Path input, long inputLength, long inputLastModified, Path output) throws IOException {
+        return input.toAbsolutePath().normalize().toString().equals(this.input)
+                && inputLength == this.inputLength
+                && inputLastModified == this.inputLastModified
+                && inputOffset <= inputLength
+                && Files.isRegularFile(output)
+                && Files.size(output) >= outputLength;
+    }
+}
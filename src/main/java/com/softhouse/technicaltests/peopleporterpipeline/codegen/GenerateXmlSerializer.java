@@ -0,0 +1,15 @@
+package com.softhouse.technicaltests.peopleporterpipeline.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a JAXB root element class for which {@link XmlSerializerProcessor} generates a reflection-free serializer,
+ * named after the class with an {@code XmlSerializer} suffix, in the same package.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateXmlSerializer {
+}
@@ -0,0 +1,381 @@
+package com.softhouse.technicaltests.peopleporterpipeline.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor generating straight-line XML serializers for classes annotated with
+ * {@link GenerateXmlSerializer}.
+ * <p>
+ * The generated code mirrors what JAXB writes with formatted output for field-access classes, without reflection or
+ * a {@code JAXBContext}:
+ * <ul>
+ *     <li>the root element is named by {@code @XmlRootElement(name)}, or the decapitalized class name;</li>
+ *     <li>fields are written in declaration order (superclass fields first), skipping static, transient and
+ *     {@code @XmlTransient} fields, each named by {@code @XmlElement(name)} or the field name;</li>
+ *     <li>{@code null} values and {@code null} list items are omitted, empty strings are written as
+ *     {@code <x></x>}, and complex elements without any content (all fields {@code null}, lists without
+ *     non-null items) as {@code <x/>};</li>
+ *     <li>only {@code &}, {@code <}, {@code >} and carriage returns are escaped in text, and nesting is indented by
+ *     four spaces.</li>
+ * </ul>
+ * Supported field types are {@link String}, primitives and their wrappers, {@link java.util.List}s and other classes
+ * following the same rules. Values are read through their (Lombok generated) getters. As the whole type graph is
+ * inlined, recursive types are rejected.
+ */
+@SupportedAnnotationTypes("com.softhouse.technicaltests.peopleporterpipeline.codegen.GenerateXmlSerializer")
+public class XmlSerializerProcessor extends AbstractProcessor {
+
+    private static final String XML_ELEMENT = "jakarta.xml.bind.annotation.XmlElement";
+    private static final String XML_ROOT_ELEMENT = "jakarta.xml.bind.annotation.XmlRootElement";
+    private static final String XML_TRANSIENT = "jakarta.xml.bind.annotation.XmlTransient";
+    private static final String DEFAULT_NAME = "##default";
+    private static final String INDENT = "    ";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@GenerateXmlSerializer is only supported on classes");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (UnsupportedTypeException e) {
+                    error(e.element, e.getMessage());
+                } catch (IOException e) {
+                    error(element, "Failed to write XML serializer: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement root) throws IOException {
+        String packageName = ((PackageElement) root.getEnclosingElement()).getQualifiedName().toString();
+        String rootType = root.getSimpleName().toString();
+        String serializer = rootType + "XmlSerializer";
+        String rootName = annotationName(root, XML_ROOT_ELEMENT, decapitalize(rootType));
+
+        Code code = new Code();
+        code.line("package " + packageName + ";");
+        code.line("");
+        code.line("import java.io.IOException;");
+        code.line("import java.io.Writer;");
+        code.line("");
+        code.line("/**");
+        code.line(" * Reflection-free XML serializer for {@link " + rootType + "}, generated by {@code "
+                + XmlSerializerProcessor.class.getSimpleName() + "}. Output is identical to JAXB with formatted output.");
+        code.line(" */");
+        code.line("@javax.annotation.processing.Generated(\"" + XmlSerializerProcessor.class.getName() + "\")");
+        code.line("public final class " + serializer + " {");
+        code.line("");
+        code.indent(1).line("private " + serializer + "() {");
+        code.indent(1).line("}");
+        code.line("");
+        code.indent(1).line("public static void write(" + rootType + " value, Writer out) throws IOException {");
+        code.indent(2).line("out.write(" + literal("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n") + ");");
+        writeComplex(code, 2, "value", root, rootName, 0, new ArrayDeque<>());
+        code.indent(2).line("out.flush();");
+        code.indent(1).line("}");
+        code.line("");
+        writeIsEmptyMethod(code);
+        code.line("");
+        writeEscapeMethod(code);
+        code.line("}");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + serializer, root).openWriter()) {
+            writer.write(code.toString());
+        }
+    }
+
+    /**
+     * Emits code writing the non-null complex value {@code expr} as element {@code name} at XML depth {@code depth}.
+     */
+    private void writeComplex(Code code, int level, String expr, TypeElement type, String name, int depth,
+                              Deque<TypeElement> path) {
+        if (path.contains(type)) {
+            throw new UnsupportedTypeException(type, "Recursive type " + type.getQualifiedName() + " is not supported");
+        }
+        path.push(type);
+
+        List<VariableElement> fields = xmlFields(type);
+        List<String> locals = new ArrayList<>();
+        List<String> emptyChecks = new ArrayList<>();
+        for (VariableElement field : fields) {
+            String local = code.newLocal();
+            locals.add(local);
+            code.indent(level).line(typeName(field.asType()) + " " + local + " = " + expr + "." + getter(field) + "();");
+            TypeMirror fieldType = field.asType();
+            if (fieldType.getKind().isPrimitive()) {
+                emptyChecks.add("false");
+            } else if (isList(fieldType)) {
+                emptyChecks.add("isEmpty(" + local + ")");
+            } else {
+                emptyChecks.add(local + " == null");
+            }
+        }
+
+        String indent = INDENT.repeat(depth);
+        String empty = emptyChecks.isEmpty() ? "true" : String.join(" && ", emptyChecks);
+        code.indent(level).line("if (" + empty + ") {");
+        code.indent(level + 1).line("out.write(" + literal(indent + "<" + name + "/>\n") + ");");
+        code.indent(level).line("} else {");
+        code.indent(level + 1).line("out.write(" + literal(indent + "<" + name + ">\n") + ");");
+        for (int i = 0; i < fields.size(); i++) {
+            VariableElement field = fields.get(i);
+            writeValue(code, level + 1, locals.get(i), field, field.asType(), elementName(field), depth + 1, path);
+        }
+        code.indent(level + 1).line("out.write(" + literal(indent + "</" + name + ">\n") + ");");
+        code.indent(level).line("}");
+
+        path.pop();
+    }
+
+    private void writeValue(Code code, int level, String local, Element field, TypeMirror type, String name, int depth,
+                            Deque<TypeElement> path) {
+        String indent = INDENT.repeat(depth);
+        if (type.getKind().isPrimitive()) {
+            writeText(code, level, "String.valueOf(" + local + ")", indent, name);
+        } else if (isText(type)) {
+            code.indent(level).line("if (" + local + " != null) {");
+            writeText(code, level + 1, isString(type) ? local : "String.valueOf(" + local + ")", indent, name);
+            code.indent(level).line("}");
+        } else if (isList(type)) {
+            TypeMirror itemType = ((DeclaredType) type).getTypeArguments().get(0);
+            String item = code.newLocal();
+            code.indent(level).line("if (" + local + " != null) {");
+            code.indent(level + 1).line("for (" + typeName(itemType) + " " + item + " : " + local + ") {");
+            // Items are never primitive, so null items are skipped by the item's own null check
+            writeValue(code, level + 2, item, field, itemType, name, depth, path);
+            code.indent(level + 1).line("}");
+            code.indent(level).line("}");
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            code.indent(level).line("if (" + local + " != null) {");
+            writeComplex(code, level + 1, local, (TypeElement) ((DeclaredType) type).asElement(), name, depth, path);
+            code.indent(level).line("}");
+        } else {
+            throw new UnsupportedTypeException(field, "Unsupported field type " + type);
+        }
+    }
+
+    private static void writeText(Code code, int level, String value, String indent, String name) {
+        code.indent(level).line("out.write(" + literal(indent + "<" + name + ">") + ");");
+        code.indent(level).line("escape(" + value + ", out);");
+        code.indent(level).line("out.write(" + literal("</" + name + ">\n") + ");");
+    }
+
+    private static void writeIsEmptyMethod(Code code) {
+        code.indent(1).line("private static boolean isEmpty(Iterable<?> items) {");
+        code.indent(2).line("if (items != null) {");
+        code.indent(3).line("for (Object item : items) {");
+        code.indent(4).line("if (item != null) {");
+        code.indent(5).line("return false;");
+        code.indent(4).line("}");
+        code.indent(3).line("}");
+        code.indent(2).line("}");
+        code.indent(2).line("return true;");
+        code.indent(1).line("}");
+    }
+
+    private static void writeEscapeMethod(Code code) {
+        code.indent(1).line("private static void escape(String value, Writer out) throws IOException {");
+        code.indent(2).line("int start = 0;");
+        code.indent(2).line("for (int i = 0; i < value.length(); i++) {");
+        code.indent(3).line("String replacement = switch (value.charAt(i)) {");
+        code.indent(4).line("case '&' -> \"&amp;\";");
+        code.indent(4).line("case '<' -> \"&lt;\";");
+        code.indent(4).line("case '>' -> \"&gt;\";");
+        code.indent(4).line("case '\\r' -> \"&#13;\";");
+        code.indent(4).line("default -> null;");
+        code.indent(3).line("};");
+        code.indent(3).line("if (replacement != null) {");
+        code.indent(4).line("out.write(value, start, i - start);");
+        code.indent(4).line("out.write(replacement);");
+        code.indent(4).line("start = i + 1;");
+        code.indent(3).line("}");
+        code.indent(2).line("}");
+        code.indent(2).line("out.write(value, start, value.length() - start);");
+        code.indent(1).line("}");
+    }
+
+    private List<VariableElement> xmlFields(TypeElement type) {
+        List<VariableElement> fields = new ArrayList<>();
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement parent = (TypeElement) ((DeclaredType) superclass).asElement();
+            if (!parent.getQualifiedName().contentEquals("java.lang.Object")) {
+                fields.addAll(xmlFields(parent));
+            }
+        }
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.FIELD
+                    && !member.getModifiers().contains(Modifier.STATIC)
+                    && !member.getModifiers().contains(Modifier.TRANSIENT)
+                    && findAnnotation(member, XML_TRANSIENT) == null) {
+                fields.add((VariableElement) member);
+            }
+        }
+        return fields;
+    }
+
+    private String elementName(VariableElement field) {
+        return annotationName(field, XML_ELEMENT, field.getSimpleName().toString());
+    }
+
+    private static String annotationName(Element element, String annotationType, String defaultName) {
+        AnnotationMirror annotation = findAnnotation(element, annotationType);
+        if (annotation != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("name")) {
+                    String name = entry.getValue().getValue().toString();
+                    if (!name.equals(DEFAULT_NAME)) {
+                        return name;
+                    }
+                }
+            }
+        }
+        return defaultName;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Same rule as {@code java.beans.Introspector.decapitalize}, which JAXB uses for default element names.
+     */
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String getter(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String prefix = field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+        return prefix + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private boolean isString(TypeMirror type) {
+        return isDeclared(type, "java.lang.String");
+    }
+
+    private boolean isText(TypeMirror type) {
+        if (isString(type)) {
+            return true;
+        }
+        try {
+            return processingEnv.getTypeUtils().unboxedType(type).getKind().isPrimitive();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean isList(TypeMirror type) {
+        TypeMirror list = processingEnv.getTypeUtils().erasure(
+                processingEnv.getElementUtils().getTypeElement("java.util.List").asType());
+        return type.getKind() == TypeKind.DECLARED
+                && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), list)
+                && ((DeclaredType) type).getTypeArguments().size() == 1;
+    }
+
+    private static boolean isDeclared(TypeMirror type, String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private static String typeName(TypeMirror type) {
+        return type.toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Source code being generated, with unique local variable names.
+     */
+    private static final class Code {
+
+        private final StringBuilder source = new StringBuilder();
+        private int locals;
+
+        Code indent(int level) {
+            source.append(INDENT.repeat(level));
+            return this;
+        }
+
+        Code line(String line) {
+            source.append(line).append('\n');
+            return this;
+        }
+
+        String newLocal() {
+            return "v" + locals++;
+        }
+
+        @Override
+        public String toString() {
+            return source.toString();
+        }
+    }
+
+    private static final class UnsupportedTypeException extends RuntimeException {
+
+        private final transient Element element;
+
+        UnsupportedTypeException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.softhouse.technicaltests.peopleporterpipeline.common;
+
+import java.util.List;
+
+/**
+ * Consecutive person blocks of one input file that travel through the pipeline together, as the body of a single
+ * exchange, so the per-exchange overhead of the routes is paid once per batch instead of once per person.
+ * <p>
+ * A batch is immutable. Each stage replaces it with a new batch holding its results in the same order: the blocks
+ * as split, then their parsed lines, then the built persons.
+ *
+ * @param items the blocks, parsed lines or persons of the batch, in input order
+ */
+public record MicroBatch(List<?> items) {
+
+    public int size() {
+        return items.size();
+    }
+}
@@ -3,28 +3,65 @@ package com.softhouse.technicaltests.peopleporterpipeline.common;
 /**
  * Centralized definition of route URIs, route IDs, direct endpoint names,
  * and the exchange property {@link #PROPERTY_EXPECTED_PEOPLE_COUNT}
- * that controls aggregation completion.
+ * set by {@code SplitPersonBlocksProcessor} with the number of person blocks.
  */
 public final class RouteConstants {
 
     // File I/O
-    public static final String INPUT_URI = "file:camel/input?include=.*\\.txt&move=../processed";
+    public static final String INPUT_URI = "file:camel/input?include=.*\\.txt(\\.gz)?&move=../processed";
     public static final String OUTPUT_URI = "file:camel/output?fileName=${file:name.noext}.xml";
+    public static final String COMPRESSED_OUTPUT_URI = "file:camel/output?fileName=${file:name.noext}.xml.gz";
+    public static final String FORMATTED_OUTPUT_URI = "file:camel/output?fileName=${file:name.noext}.${exchangeProperty.outputFormat.fileExtension}";
+    public static final String GZIP_SUFFIX = ".gz";
+    public static final String DONE_MARKER_SUFFIX = ".done";
     public static final String ERROR_FOLDER_URI = "file:camel/error";
 
+    // Registry beans
+    public static final String BEAN_INPUT_WATCH_SCHEDULER = "inputWatchScheduler";
+
     // Route IDs
     public static final String ROUTE_ID_READ_AND_SPLIT_PEOPLE = "read-file-and-split-people";
     public static final String ROUTE_ID_PERSON_STRING_TO_INPUT_LINES = "convert-person-block-to-input-lines";
     public static final String ROUTE_ID_BUILD_PERSON = "build-person-object";
     public static final String ROUTE_ID_AGGREGATE_PEOPLE = "aggregate-all-people";
+    public static final String ROUTE_ID_STREAM_PEOPLE = "stream-people-to-output";
+    public static final String ROUTE_ID_RESEQUENCE_PEOPLE = "resequence-people";
+    public static final String ROUTE_ID_DROP_STAGED_BLOCK = "drop-staged-person-block";
 
     // Direct endpoints
     public static final String ROUTE_PERSON_STRING_TO_INPUT_LINES = "direct:person-to-input-lines";
     public static final String ROUTE_BUILD_PERSON = "direct:build-person";
     public static final String ROUTE_PEOPLE_AGGREGATOR = "direct:people-aggregator";
+    public static final String ROUTE_PEOPLE_RESEQUENCER = "direct:people-resequencer";
+    public static final String ROUTE_DROP_STAGED_BLOCK = "direct:drop-staged-person-block";
+
+    // Queued stage endpoints of the staged topology
+    public static final String STAGE_PERSON_STRING_TO_INPUT_LINES = "seda:person-to-input-lines";
+    public static final String STAGE_BUILD_PERSON = "seda:build-person";
+    public static final String STAGE_PEOPLE_SINK = "seda:people-sink";
 
     // Properties
     public static final String PROPERTY_EXPECTED_PEOPLE_COUNT = "expectedPersonCount";
+    public static final String PROPERTY_FILE_ID = "inputFileId";
+    public static final String PROPERTY_STREAMING_OUTPUT = "streamingPeopleOutput";
+    public static final String PROPERTY_PERSON_RESEQUENCER = "personResequencer";
+    public static final String PROPERTY_RESUME_OFFSET = "checkpointResumeOffset";
+    public static final String PROPERTY_BLOCK_END_OFFSET = "personBlockEndOffset";
+    public static final String PROPERTY_VALUE_DICTIONARY = "valueDictionary";
+    public static final String PROPERTY_OUTPUT_FORMAT = "outputFormat";
+    public static final String PROPERTY_DELTA_TRACKER = "deltaTracker";
+    public static final String PROPERTY_REJECTED_BLOCK_WRITER = "rejectedBlockWriter";
+    public static final String PROPERTY_BLOCK_START_LINE = "personBlockStartLine";
+    public static final String PROPERTY_PERSON_BLOCK = "personBlock";
+    public static final String PROPERTY_BLOCK_REJECTED = "personBlockRejected";
+    public static final String PROPERTY_STAGED_BLOCKS = "stagedBlocks";
+    public static final String PROPERTY_SPLIT_BLOCK_COUNT = "splitPersonBlockCount";
+
+    // Thread pools
+    public static final String PERSON_BLOCK_WORKER_POOL = "person-block-worker";
+    public static final String FILE_WORKER_POOL = "input-file-worker";
+    public static final String AGGREGATOR_WORKER_POOL = "people-aggregator-worker";
+    public static final String DECOMPRESSION_WORKER_POOL = "input-decompression-worker";
 
     private RouteConstants() {
     }
@@ -0,0 +1,14 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+/**
+ * Selects how the persons of a file are held while they are aggregated in {@link OutputMode#AGGREGATE} mode.
+ * <ul>
+ *     <li>{@link #BEANS} - A {@code People} object holding a list of {@code Person} beans.</li>
+ *     <li>{@link #COLUMNAR} - A struct-of-arrays {@code PeopleColumns} container whose string columns share one
+ *     character arena, written to XML without materializing beans.</li>
+ * </ul>
+ */
+public enum AggregationLayout {
+    BEANS,
+    COLUMNAR
+}
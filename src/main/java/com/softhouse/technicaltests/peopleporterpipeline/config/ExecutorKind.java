@@ -0,0 +1,40 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects the kind of threads used for parallel person block and input file processing.
+ * <ul>
+ *     <li>{@link #PLATFORM_THREADS} - A fixed pool of regular (daemon) platform threads.</li>
+ *     <li>{@link #VIRTUAL_THREADS} - A pool of the same size backed by virtual threads.</li>
+ * </ul>
+ * Both kinds use a bounded work queue and run rejected tasks on the submitting thread, so a streaming
+ * splitter cannot read further ahead of the workers than {@code parallelism * QUEUE_CAPACITY_PER_THREAD} blocks.
+ */
+public enum ExecutorKind {
+    PLATFORM_THREADS,
+    VIRTUAL_THREADS;
+
+    private static final int QUEUE_CAPACITY_PER_THREAD = 4;
+
+    public ExecutorService newExecutor(String name, int parallelism) {
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * QUEUE_CAPACITY_PER_THREAD),
+                threadFactory(name), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Returns a factory for threads of this kind named {@code name-0}, {@code name-1} and so on, for pools that need
+     * another queue or rejection policy than {@link #newExecutor(String, int)}.
+     */
+    public ThreadFactory threadFactory(String name) {
+        return switch (this) {
+            case PLATFORM_THREADS -> Thread.ofPlatform().daemon().name(name + "-", 0).factory();
+            case VIRTUAL_THREADS -> Thread.ofVirtual().name(name + "-", 0).factory();
+        };
+    }
+}
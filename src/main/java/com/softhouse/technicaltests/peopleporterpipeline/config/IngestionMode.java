@@ -0,0 +1,18 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+/**
+ * Selects how the file consumer of the input folder finds new input files.
+ * <ul>
+ *     <li>{@link #POLLING} - The folder is scanned at the poll interval of the file endpoint, picking up every matching
+ *     file, complete or not.</li>
+ *     <li>{@link #WATCH_DONE_MARKER} - The folder is scanned when a {@code WatchService} reports a change, and a file is
+ *     only picked up once a {@code <name>.done} marker file exists next to it. The marker is deleted with the file.</li>
+ *     <li>{@link #WATCH_SIZE_STABLE} - The folder is scanned when a {@code WatchService} reports a change, and a file is
+ *     only picked up once its size and modification time have stayed unchanged for the input quiet period.</li>
+ * </ul>
+ */
+public enum IngestionMode {
+    POLLING,
+    WATCH_DONE_MARKER,
+    WATCH_SIZE_STABLE
+}
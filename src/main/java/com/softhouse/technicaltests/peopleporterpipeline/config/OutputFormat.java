@@ -0,0 +1,50 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleBinaryWriter;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleJsonLinesWriter;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleOutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleWriter;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleXmlWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The built-in {@link PeopleOutputFormat}s.
+ * <ul>
+ *     <li>{@link #XML} - The {@code <people>} XML document. Aggregated documents are marshalled with the selected
+ *     {@link XmlMarshaller}.</li>
+ *     <li>{@link #JSON_LINES} - Newline-delimited JSON, one object per person.</li>
+ *     <li>{@link #BINARY} - Length-prefixed binary person records.</li>
+ * </ul>
+ */
+public enum OutputFormat implements PeopleOutputFormat {
+    XML("xml"),
+    JSON_LINES("jsonl"),
+    BINARY("bin");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String fileExtension;
+
+    OutputFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    @Override
+    public PeopleWriter newWriter(OutputStream out) {
+        return switch (this) {
+            case XML -> new PeopleXmlWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+            case JSON_LINES -> new PeopleJsonLinesWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+            case BINARY -> new PeopleBinaryWriter(new BufferedOutputStream(out, BUFFER_SIZE));
+        };
+    }
+}
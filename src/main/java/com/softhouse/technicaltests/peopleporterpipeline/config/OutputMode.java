@@ -0,0 +1,13 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+/**
+ * Selects how built {@code Person} objects are turned into the output document.
+ * <ul>
+ *     <li>{@link #AGGREGATE} - All persons are aggregated into one {@code People} object which is then marshalled with JAXB.</li>
+ *     <li>{@link #STREAMING} - The output file is opened once and each person is appended as soon as it is built.</li>
+ * </ul>
+ */
+public enum OutputMode {
+    AGGREGATE,
+    STREAMING
+}
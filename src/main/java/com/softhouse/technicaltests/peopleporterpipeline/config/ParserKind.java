@@ -0,0 +1,14 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+/**
+ * Selects how the input file is split into person blocks and parsed into lines.
+ * <ul>
+ *     <li>{@link #STRING} - The file is streamed as text, blocks are strings and lines are tokenized with regular expressions.</li>
+ *     <li>{@link #MAPPED_BYTES} - The file is memory-mapped in windows, blocks are zero-copy byte slices and lines are
+ *     tokenized byte by byte. Field values are only decoded when stored on a domain object.</li>
+ * </ul>
+ */
+public enum ParserKind {
+    STRING,
+    MAPPED_BYTES
+}
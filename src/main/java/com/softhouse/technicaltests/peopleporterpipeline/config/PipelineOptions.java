@@ -0,0 +1,232 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleOutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.MappedPersonBlockIterator;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Tunable options for the {@link com.softhouse.technicaltests.peopleporterpipeline.routes.PeoplePorterRoute}.
+ * <p>
+ * Instances are created with the Lombok generated builder. Every option has a default matching the
+ * original behaviour of the pipeline, so {@link #defaults()} yields the classic topology.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class PipelineOptions {
+
+    /**
+     * How built persons are written to the output.
+     */
+    @Builder.Default
+    private final OutputMode outputMode = OutputMode.AGGREGATE;
+
+    /**
+     * Route topology used to turn person blocks into persons.
+     */
+    @Builder.Default
+    private final PipelineTopology topology = PipelineTopology.CLASSIC;
+
+    /**
+     * How the input file is split into person blocks and parsed.
+     */
+    @Builder.Default
+    private final ParserKind parserKind = ParserKind.STRING;
+
+    /**
+     * Size in bytes of each memory-mapped window when {@link #parserKind} is {@link ParserKind#MAPPED_BYTES}.
+     */
+    @Builder.Default
+    private final int mappedWindowSize = MappedPersonBlockIterator.DEFAULT_WINDOW_SIZE;
+
+    /**
+     * Number of consecutive person blocks split into one exchange, which is parsed, built and passed to the output as a
+     * whole. {@code 1} sends every block through the routes on its own exchange. Cannot be combined with
+     * {@link #checkpointInterval} or {@link #rejectDirectory}, which track single blocks.
+     */
+    @Builder.Default
+    private final int splitBatchSize = 1;
+
+    /**
+     * Whether person blocks are parsed and built concurrently. Output order is preserved by resequencing.
+     */
+    @Builder.Default
+    private final boolean parallelProcessing = false;
+
+    /**
+     * Number of worker threads used when {@link #parallelProcessing} is enabled.
+     */
+    @Builder.Default
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Kind of worker threads used when {@link #parallelProcessing} is enabled.
+     */
+    @Builder.Default
+    private final ExecutorKind executorKind = ExecutorKind.PLATFORM_THREADS;
+
+    /**
+     * Maximum number of person exchanges the resequencer holds back per file when {@link #parallelProcessing} is
+     * enabled. The splitter waits before handing out a block this many blocks (or micro-batches) ahead of the next one
+     * due, so a slow block bounds the memory held rather than letting the rest of the file queue up behind it.
+     */
+    @Builder.Default
+    private final int resequencerCapacity = 1024;
+
+    /**
+     * Capacity of each queue between the stages of the {@link PipelineTopology#STAGED} topology, in person blocks. It
+     * bounds the memory held between a fast reader and a slow output. With {@link #parallelProcessing} the parse and
+     * build stages each get {@link #parallelism} consumers.
+     */
+    @Builder.Default
+    private final int stageQueueCapacity = 1024;
+
+    /**
+     * Number of input files processed concurrently. {@code 1} processes one file at a time on the file consumer thread.
+     */
+    @Builder.Default
+    private final int fileConcurrency = 1;
+
+    /**
+     * Maximum number of threads inflating compressed ({@code .gz}) input files ahead of their splitter, one per file.
+     * The threads are only started once a compressed file arrives, and stop again when idle. A compressed file arriving
+     * while all of them are busy is inflated on the thread splitting it.
+     */
+    @Builder.Default
+    private final int decompressionThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * How new input files are found, and when they are considered completely written.
+     */
+    @Builder.Default
+    private final IngestionMode ingestionMode = IngestionMode.POLLING;
+
+    /**
+     * How long the size of an input file must stay unchanged before it is picked up in
+     * {@link IngestionMode#WATCH_SIZE_STABLE} mode.
+     */
+    @Builder.Default
+    private final Duration inputQuietPeriod = Duration.ofMillis(100);
+
+    /**
+     * Format the output is written in, unless overridden for the input file by {@link #outputFormatsByFileName}. Any
+     * {@link PeopleOutputFormat} implementation can be used besides the built-in {@link OutputFormat}s.
+     */
+    @Builder.Default
+    private final PeopleOutputFormat outputFormat = OutputFormat.XML;
+
+    /**
+     * Output formats by regular expression matched against the whole input file name. The first matching entry in
+     * iteration order wins, so pass a {@link java.util.LinkedHashMap} when patterns overlap.
+     */
+    @Builder.Default
+    private final Map<String, PeopleOutputFormat> outputFormatsByFileName = Map.of();
+
+    /**
+     * How the aggregated {@code People} document is marshalled to XML when {@link #outputMode} is {@link OutputMode#AGGREGATE}
+     * and the output format is {@link OutputFormat#XML}.
+     */
+    @Builder.Default
+    private final XmlMarshaller xmlMarshaller = XmlMarshaller.JAXB;
+
+    /**
+     * How persons are held while aggregated when {@link #outputMode} is {@link OutputMode#AGGREGATE}. The
+     * {@link AggregationLayout#COLUMNAR} layout is always written by its own writer, regardless of {@link #xmlMarshaller},
+     * and cannot be combined with {@link #aggregationSpillThreshold}.
+     */
+    @Builder.Default
+    private final AggregationLayout aggregationLayout = AggregationLayout.BEANS;
+
+    /**
+     * Capacity of the per-file dictionary deduplicating repeated address, phone and family member values. Zero disables it.
+     */
+    @Builder.Default
+    private final int valueDictionarySize = 0;
+
+    /**
+     * Number of persons per aggregation group kept on the heap; beyond that, persons are spilled to a file in
+     * {@link #aggregationSpillDirectory} and streamed back when marshalling. Zero keeps every group in memory.
+     * <p>
+     * This is a count of persons, not a heap size: the heap a group takes up depends on how large its persons are. The
+     * marshalled document is only spooled to disk if the caller enables spooling on the CamelContext's
+     * {@link org.apache.camel.spi.StreamCachingStrategy}; the route does not change that context wide setting.
+     */
+    @Builder.Default
+    private final int aggregationSpillThreshold = 0;
+
+    /**
+     * Directory for aggregation spill files when {@link #aggregationSpillThreshold} is set.
+     */
+    @Builder.Default
+    private final Path aggregationSpillDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+
+    /**
+     * Whether the output document is gzip-compressed as it is written. The output URI should then name a {@code .xml.gz}
+     * file, see {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#COMPRESSED_OUTPUT_URI}.
+     * Cannot be combined with {@link #checkpointInterval}.
+     */
+    @Builder.Default
+    private final boolean compressOutput = false;
+
+    /**
+     * Deflate level ({@code 0}–{@code 9}) used when {@link #compressOutput} is enabled.
+     */
+    @Builder.Default
+    private final int outputCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Interval at which streaming output progress is checkpointed to a sidecar file, so that a file interrupted by a
+     * crash resumes where it left off. Zero disables checkpointing. Requires {@link OutputMode#STREAMING} and
+     * {@link ParserKind#MAPPED_BYTES}.
+     */
+    @Builder.Default
+    private final Duration checkpointInterval = Duration.ZERO;
+
+    /**
+     * Directory of the delta index and delta output of each input file. When set, persons are compared with the previous
+     * run of a file with the same name, and only new, changed and removed persons are written to a separate delta file
+     * next to the index; the regular output is unaffected. {@code null} disables delta mode. Cannot be combined with
+     * {@link #checkpointInterval}, as a resumed file does not rebuild the persons before its checkpoint.
+     */
+    @Builder.Default
+    private final Path deltaDirectory = null;
+
+    /**
+     * Directory of the reject file of each input file. When set, a person block that fails to parse or build is
+     * written to {@code <name>.rejected.jsonl} with its line number and cause, and the rest of the file is still
+     * processed; a file without a single valid block still fails. {@code null} fails the whole file on the first
+     * invalid block. Cannot be combined with {@link #checkpointInterval}, as a resumed file would number its lines
+     * from the checkpoint.
+     */
+    @Builder.Default
+    private final Path rejectDirectory = null;
+
+    /**
+     * Interval of the periodic metrics summary in the log. Zero or negative disables the summary; metrics stay available over JMX.
+     */
+    @Builder.Default
+    private final Duration metricsLogInterval = Duration.ofMinutes(1);
+
+    /**
+     * Number of recent block stage transitions kept in memory and dumped to the log when a file fails. Zero disables tracing.
+     */
+    @Builder.Default
+    private final int traceBufferSize = 256;
+
+    /**
+     * Fraction of person blocks ({@code 0.0}–{@code 1.0}) logged as they pass each stage.
+     */
+    @Builder.Default
+    private final double traceSampleRate = 0.0;
+
+    public static PipelineOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+/**
+ * Selects the route topology between splitting and output.
+ * <ul>
+ *     <li>{@link #CLASSIC} - Each block hops through separate routes for parsing ({@code InputLineParser}) and
+ *     building ({@code BuildPersonProcessor}).</li>
+ *     <li>{@link #FUSED} - Each block is parsed and built in a single pass by {@code FusedPersonBlockProcessor},
+ *     directly inside the splitter. Requires {@link ParserKind#STRING}.</li>
+ *     <li>{@link #STAGED} - Parsing, building and writing each run on their own consumer threads, connected by bounded
+ *     in-memory queues, so the stages overlap with each other and with reading. A full queue blocks the stage feeding
+ *     it, down to the reader.</li>
+ * </ul>
+ */
+public enum PipelineTopology {
+    CLASSIC,
+    FUSED,
+    STAGED
+}
@@ -0,0 +1,13 @@
+package com.softhouse.technicaltests.peopleporterpipeline.config;
+
+/**
+ * Selects the Camel data format used to marshal the aggregated {@code People} object.
+ * <ul>
+ *     <li>{@link #JAXB} - {@code camel-jaxb}, driven by the JAXB annotations on the domain model.</li>
+ *     <li>{@link #GENERATED} - The build-time generated {@code PeopleXmlSerializer}, producing identical output without reflection.</li>
+ * </ul>
+ */
+public enum XmlMarshaller {
+    JAXB,
+    GENERATED
+}
@@ -0,0 +1,138 @@
+package com.softhouse.technicaltests.peopleporterpipeline.delta;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only, memory-mapped index of the persons written by a previous run, used to compute the delta of the next one.
+ * <p>
+ * The file starts with the magic bytes {@code PPDI}, a version and the entry count {@code n}, followed by {@code n}
+ * {@link PersonHashes#key(com.softhouse.technicaltests.peopleporterpipeline.domain.Person) keys} in ascending order,
+ * the {@code n} matching content hashes, {@code n + 1} offsets into the names section, and the names section with the
+ * UTF-8 first and last name of every entry, separated by a zero byte. All numbers are big-endian.
+ * <p>
+ * Opening the index only maps the file; {@link #find(long)} binary searches the mapped keys, so startup does not depend
+ * on the number of entries and only the pages touched are read. The index is limited to 2 GB, some 40 million persons.
+ *
+ * @see DeltaIndexBuilder
+ */
+public final class DeltaIndex {
+
+    static final byte[] MAGIC = {'P', 'P', 'D', 'I'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + 2 * Integer.BYTES;
+
+    private static final DeltaIndex EMPTY = new DeltaIndex(ByteBuffer.allocate(0), 0);
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int hashesOffset;
+    private final int nameOffsetsOffset;
+    private final int namesOffset;
+
+    private DeltaIndex(ByteBuffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+        this.hashesOffset = HEADER_SIZE + size * Long.BYTES;
+        this.nameOffsetsOffset = hashesOffset + size * Long.BYTES;
+        this.namesOffset = nameOffsetsOffset + (size + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Maps the index in {@code file}, or returns an empty index if there is none yet.
+     */
+    public static DeltaIndex open(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return EMPTY;
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        byte[] magic = new byte[MAGIC.length];
+        if (buffer.limit() < HEADER_SIZE || !Arrays.equals(readMagic(buffer, magic), MAGIC)) {
+            throw new IOException("Not a delta index: " + file);
+        }
+        if (buffer.getInt(MAGIC.length) != VERSION) {
+            throw new IOException("Unsupported delta index version " + buffer.getInt(MAGIC.length) + ": " + file);
+        }
+        int size = buffer.getInt(MAGIC.length + Integer.BYTES);
+        if (size < 0 || size > (buffer.limit() - HEADER_SIZE) / (2 * Long.BYTES + Integer.BYTES)) {
+            throw new IOException("Corrupt delta index: " + file);
+        }
+        DeltaIndex index = new DeltaIndex(buffer, size);
+        if (index.namesOffset > buffer.limit() || index.namesOffset + index.nameOffset(size) != buffer.limit()) {
+            throw new IOException("Corrupt delta index: " + file);
+        }
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of the entry with the given key, or {@code -1} if there is none.
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = key(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public long key(int position) {
+        return buffer.getLong(HEADER_SIZE + position * Long.BYTES);
+    }
+
+    public long contentHash(int position) {
+        return buffer.getLong(hashesOffset + position * Long.BYTES);
+    }
+
+    public String firstname(int position) {
+        String name = name(position);
+        return emptyToNull(name.substring(0, name.indexOf('\0')));
+    }
+
+    public String lastname(int position) {
+        String name = name(position);
+        return emptyToNull(name.substring(name.indexOf('\0') + 1));
+    }
+
+    private String name(int position) {
+        int start = nameOffset(position);
+        byte[] bytes = new byte[nameOffset(position + 1) - start];
+        buffer.get(namesOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int nameOffset(int position) {
+        return buffer.getInt(nameOffsetsOffset + position * Integer.BYTES);
+    }
+
+    private static byte[] readMagic(ByteBuffer buffer, byte[] magic) {
+        buffer.get(0, magic);
+        return magic;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
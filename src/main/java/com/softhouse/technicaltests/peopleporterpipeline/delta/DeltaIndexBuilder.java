@@ -0,0 +1,160 @@
+package com.softhouse.technicaltests.peopleporterpipeline.delta;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Collects the entries of the next {@link DeltaIndex} while a file is processed, and writes it once the file is done.
+ * <p>
+ * Entries are kept in primitive arrays and a byte arena for the names, with an open-addressing table from key to
+ * entry, so a run costs well under 100 bytes per person. {@link #write(Path)} sorts the keys, writes the index to a temporary
+ * file which is synced and atomically renamed over the previous one. Not thread-safe.
+ */
+public final class DeltaIndexBuilder {
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final long EMPTY_SLOT = 0L; // Key 0 is stored out of the table, see zeroKeyEntry
+
+    private long[] keys = new long[1024];
+    private long[] hashes = new long[1024];
+    private int[] nameStarts = new int[1025];
+    private byte[] names = new byte[16 * 1024];
+    private int size;
+
+    private long[] tableKeys = new long[2048];
+    private int[] tableEntries = new int[2048];
+    private int zeroKeyEntry = -1;
+
+    /**
+     * Adds an entry, unless one with the same key was already added.
+     *
+     * @return whether the entry was added
+     */
+    public boolean add(long key, long contentHash, String firstname, String lastname) {
+        if (entryOf(key) >= 0) {
+            return false;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            hashes = Arrays.copyOf(hashes, size << 1);
+            nameStarts = Arrays.copyOf(nameStarts, (size << 1) + 1);
+        }
+        keys[size] = key;
+        hashes[size] = contentHash;
+        appendName(firstname, lastname);
+        putEntry(key, size);
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void write(Path file) throws IOException {
+        long[] sortedKeys = Arrays.copyOf(keys, size);
+        Arrays.sort(sortedKeys);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), IO_BUFFER_SIZE));
+            out.write(DeltaIndex.MAGIC);
+            out.writeInt(DeltaIndex.VERSION);
+            out.writeInt(size);
+            for (long key : sortedKeys) {
+                out.writeLong(key);
+            }
+            for (long key : sortedKeys) {
+                out.writeLong(hashes[entryOf(key)]);
+            }
+            int offset = 0;
+            out.writeInt(offset);
+            for (long key : sortedKeys) {
+                int entry = entryOf(key);
+                offset += nameStarts[entry + 1] - nameStarts[entry];
+                out.writeInt(offset);
+            }
+            for (long key : sortedKeys) {
+                int entry = entryOf(key);
+                out.write(names, nameStarts[entry], nameStarts[entry + 1] - nameStarts[entry]);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void appendName(String firstname, String lastname) {
+        byte[] first = firstname != null ? firstname.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] last = lastname != null ? lastname.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int start = nameStarts[size];
+        int end = start + first.length + 1 + last.length;
+        if (end > names.length) {
+            names = Arrays.copyOf(names, Math.max(end, names.length << 1));
+        }
+        System.arraycopy(first, 0, names, start, first.length);
+        names[start + first.length] = 0;
+        System.arraycopy(last, 0, names, start + first.length + 1, last.length);
+        nameStarts[size + 1] = end;
+    }
+
+    private int entryOf(long key) {
+        if (key == EMPTY_SLOT) {
+            return zeroKeyEntry;
+        }
+        int mask = tableKeys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (tableKeys[slot] == key) {
+                return tableEntries[slot];
+            }
+            if (tableKeys[slot] == EMPTY_SLOT) {
+                return -1;
+            }
+        }
+    }
+
+    private void putEntry(long key, int entry) {
+        if (key == EMPTY_SLOT) {
+            zeroKeyEntry = entry;
+            return;
+        }
+        // Keep the table at most half full
+        if ((size + 1) * 2 > tableKeys.length) {
+            long[] oldKeys = tableKeys;
+            int[] oldEntries = tableEntries;
+            tableKeys = new long[oldKeys.length << 1];
+            tableEntries = new int[oldKeys.length << 1];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY_SLOT) {
+                    insert(oldKeys[i], oldEntries[i]);
+                }
+            }
+        }
+        insert(key, entry);
+    }
+
+    private void insert(long key, int entry) {
+        int mask = tableKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (tableKeys[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        tableKeys[slot] = key;
+        tableEntries[slot] = entry;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
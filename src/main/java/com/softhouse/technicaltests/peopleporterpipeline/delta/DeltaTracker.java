@@ -0,0 +1,163 @@
+package com.softhouse.technicaltests.peopleporterpipeline.delta;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleJsonLinesWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+
+/**
+ * Compares the persons of one input file with the {@link DeltaIndex} left by the previous run of the same file, and
+ * writes the persons that are new, changed or removed since then to a delta file.
+ * <p>
+ * Files are named after the input file: {@code <name>.delta-index} holds the index and {@code <name>.delta.jsonl} the
+ * delta, one JSON object per line with a {@code change} of {@code NEW}, {@code CHANGED} or {@code REMOVED} and the
+ * {@code person} in the JSON Lines output format (only the name for removed persons). Persons are identified by first
+ * and last name; a person sharing its name with an earlier person of the same file cannot be matched reliably and is
+ * always written as changed.
+ * <p>
+ * The delta is written to a temporary file. {@link #finish()} appends the removed persons, renames it into place and
+ * replaces the index with the one built during this run; {@link #abort()} discards the delta and keeps the previous
+ * index, so a failed file is compared against the same baseline when it is retried. {@link #track(Person)} is
+ * synchronized, as persons may be built on several threads.
+ */
+public class DeltaTracker {
+
+    public static final String INDEX_SUFFIX = ".delta-index";
+    public static final String DELTA_SUFFIX = ".delta.jsonl";
+
+    private static final Logger log = LoggerFactory.getLogger(DeltaTracker.class);
+
+    private final Path indexFile;
+    private final Path deltaFile;
+    private final Path tempDeltaFile;
+    private final DeltaIndex previous;
+    private final BitSet matched;
+    private final DeltaIndexBuilder next = new DeltaIndexBuilder();
+    private final Writer writer;
+    private final PeopleJsonLinesWriter json;
+
+    private long added;
+    private long changed;
+    private long unchanged;
+    private long removed;
+    private boolean closed;
+
+    public DeltaTracker(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        this.indexFile = directory.resolve(name + INDEX_SUFFIX);
+        this.deltaFile = directory.resolve(name + DELTA_SUFFIX);
+        this.tempDeltaFile = directory.resolve(name + DELTA_SUFFIX + ".tmp");
+        this.previous = DeltaIndex.open(indexFile);
+        this.matched = new BitSet(previous.size());
+        this.writer = Files.newBufferedWriter(tempDeltaFile, StandardCharsets.UTF_8);
+        this.json = new PeopleJsonLinesWriter(writer);
+    }
+
+    public synchronized void track(Person person) {
+        checkOpen();
+        long key = PersonHashes.key(person);
+        long contentHash = PersonHashes.contentHash(person);
+
+        if (!next.add(key, contentHash, person.getFirstname(), person.getLastname())) {
+            changed++;
+            write("CHANGED", person);
+            return;
+        }
+        int position = previous.find(key);
+        if (position < 0) {
+            added++;
+            write("NEW", person);
+        } else {
+            matched.set(position);
+            if (previous.contentHash(position) != contentHash) {
+                changed++;
+                write("CHANGED", person);
+            } else {
+                unchanged++;
+            }
+        }
+    }
+
+    public synchronized void finish() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (writer) {
+            for (int position = matched.nextClearBit(0); position < previous.size(); position = matched.nextClearBit(position + 1)) {
+                Person person = new Person();
+                person.setFirstname(previous.firstname(position));
+                person.setLastname(previous.lastname(position));
+                removed++;
+                write("REMOVED", person);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to complete delta " + deltaFile, e);
+        }
+        try {
+            Files.move(tempDeltaFile, deltaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            next.write(indexFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replace delta index " + indexFile, e);
+        }
+        log.info("Wrote delta {}: {} new, {} changed, {} removed, {} unchanged", deltaFile, added, changed, removed, unchanged);
+    }
+
+    public synchronized void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.close();
+            Files.deleteIfExists(tempDeltaFile);
+            log.warn("Discarded partial delta {}, keeping index {}", deltaFile, indexFile);
+        } catch (IOException e) {
+            log.warn("Failed to discard partial delta {}", tempDeltaFile, e);
+        }
+    }
+
+    public synchronized long getAdded() {
+        return added;
+    }
+
+    public synchronized long getChanged() {
+        return changed;
+    }
+
+    public synchronized long getRemoved() {
+        return removed;
+    }
+
+    public synchronized long getUnchanged() {
+        return unchanged;
+    }
+
+    private void write(String change, Person person) {
+        try {
+            writer.write("{\"change\":\"");
+            writer.write(change);
+            writer.write("\",\"person\":");
+            json.writePersonObject(person);
+            writer.write("}\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write delta " + tempDeltaFile, e);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Delta already closed: " + deltaFile);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.softhouse.technicaltests.peopleporterpipeline.delta;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PersonBinaryCodec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Stable 64-bit hashes identifying a {@link Person} and its content across runs.
+ * <p>
+ * Both are 64-bit FNV-1a hashes, which unlike {@link Object#hashCode()} are specified independently of the JVM and
+ * the Lombok generated code. The key covers the first and last name; the content hash covers the
+ * {@link PersonBinaryCodec} encoding, i.e. every field of the person, its address, phone and family members in order.
+ */
+public final class PersonHashes {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private PersonHashes() {
+    }
+
+    public static long key(Person person) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hashChars(hash, person.getFirstname());
+        hash = (hash ^ 0xFFFF) * FNV_PRIME; // Separator, so "ab c" and "a bc" differ
+        return hashChars(hash, person.getLastname());
+    }
+
+    public static long contentHash(Person person) {
+        HashingOutputStream hashing = new HashingOutputStream();
+        try {
+            PersonBinaryCodec.write(person, new DataOutputStream(hashing));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen, nothing is written anywhere
+        }
+        return hashing.hash;
+    }
+
+    private static long hashChars(long hash, String value) {
+        if (value == null) {
+            return (hash ^ 0xFFFE) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // Hashes the encoding as it is written instead of buffering it
+    private static final class HashingOutputStream extends OutputStream {
+
+        private long hash = FNV_OFFSET_BASIS;
+
+        @Override
+        public void write(int b) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            long h = hash;
+            for (int i = off; i < off + len; i++) {
+                h = (h ^ (b[i] & 0xFF)) * FNV_PRIME;
+            }
+            hash = h;
+        }
+    }
+}
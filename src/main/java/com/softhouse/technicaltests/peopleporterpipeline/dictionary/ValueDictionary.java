@@ -0,0 +1,77 @@
+package com.softhouse.technicaltests.peopleporterpipeline.dictionary;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded canonicalizing cache for field values that repeat across persons, such as cities, postal codes, birth years
+ * and phone numbers.
+ * <p>
+ * {@link #canonical(String)} returns a previously seen instance equal to the given value, so repeated values retained
+ * in a large {@code People} aggregate share a single {@link String}. The table is a fixed array of two-way buckets
+ * indexed by hash: a miss inserts the value at the front of its bucket and evicts the older entry, so the dictionary
+ * never holds more than its capacity and frequently seen values stay resident. Lookups are lock-free and may race,
+ * in which case a value is simply not deduplicated.
+ * <p>
+ * One dictionary is used per input file. Hits and lookups are counted for the hit rate reported when the file completes.
+ */
+public class ValueDictionary {
+
+    private final AtomicReferenceArray<String> slots;
+    private final int bucketMask;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param capacity maximum number of values kept, rounded up to a power of two (at least 2)
+     */
+    public ValueDictionary(int capacity) {
+        int size = Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.bucketMask = size - 2;
+    }
+
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookups.increment();
+
+        int hash = value.hashCode();
+        int bucket = (hash ^ (hash >>> 16)) & bucketMask;
+        String first = slots.getAcquire(bucket);
+        if (value.equals(first)) {
+            hits.increment();
+            return first;
+        }
+        String second = slots.getAcquire(bucket + 1);
+        if (value.equals(second)) {
+            hits.increment();
+            return second;
+        }
+
+        slots.setRelease(bucket + 1, first);
+        slots.setRelease(bucket, value);
+        return value;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Fraction of lookups ({@code 0.0}–{@code 1.0}) that returned a cached instance, {@code 0.0} before any lookup.
+     */
+    public double getHitRate() {
+        long total = getLookups();
+        return total == 0 ? 0.0 : (double) getHits() / total;
+    }
+}
@@ -1,25 +1,32 @@
 package com.softhouse.technicaltests.peopleporterpipeline.domain;
 
+import com.softhouse.technicaltests.peopleporterpipeline.codegen.GenerateXmlSerializer;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Root XML element that wraps a list of Person entries.
- * Used as the output object for JAXB marshalling.
+ * Used as the output object for JAXB marshalling, and for the generated {@code PeopleXmlSerializer}.
+ * The list is only ever iterated when marshalling, so it may be backed by disk, e.g. a {@code SpillingPersonList}.
  */
 @Data
-@NoArgsConstructor
+@AllArgsConstructor
 @XmlRootElement(name = "people")
 @XmlAccessorType(XmlAccessType.FIELD)
+@GenerateXmlSerializer
 public class People {
 
     @XmlElement(name = "person")
-    private final List<Person> people = new ArrayList<>();
+    private final List<Person> people;
+
+    public People() {
+        this(new ArrayList<>());
+    }
 }
@@ -0,0 +1,66 @@
+package com.softhouse.technicaltests.peopleporterpipeline.domain.columnar;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Address;
+
+import java.util.BitSet;
+
+/**
+ * The {@link Address} fields of a person or family member table, one row per person or family member.
+ * <p>
+ * Rows without an address hold {@code null} in every column and are told apart from an address without any fields
+ * by {@link #isPresent(int)}.
+ */
+public final class AddressColumns {
+
+    private final BitSet present = new BitSet();
+    private final StringColumn street;
+    private final StringColumn city;
+    private final StringColumn postalCode;
+    private int size;
+
+    AddressColumns(CharArena arena, int initialCapacity) {
+        this.street = new StringColumn(arena, initialCapacity);
+        this.city = new StringColumn(arena, initialCapacity);
+        this.postalCode = new StringColumn(arena, initialCapacity);
+    }
+
+    void add(Address address) {
+        if (address != null) {
+            present.set(size);
+        }
+        street.add(address != null ? address.getStreet() : null);
+        city.add(address != null ? address.getCity() : null);
+        postalCode.add(address != null ? address.getPostalCode() : null);
+        size++;
+    }
+
+    public boolean isPresent(int row) {
+        return present.get(row);
+    }
+
+    /**
+     * Materializes the address of {@code row}, {@code null} if it has none.
+     */
+    public Address get(int row) {
+        if (!isPresent(row)) {
+            return null;
+        }
+        Address address = new Address();
+        address.setStreet(street.get(row));
+        address.setCity(city.get(row));
+        address.setPostalCode(postalCode.get(row));
+        return address;
+    }
+
+    public StringColumn street() {
+        return street;
+    }
+
+    public StringColumn city() {
+        return city;
+    }
+
+    public StringColumn postalCode() {
+        return postalCode;
+    }
+}
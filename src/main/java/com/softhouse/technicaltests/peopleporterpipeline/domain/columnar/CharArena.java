@@ -0,0 +1,50 @@
+package com.softhouse.technicaltests.peopleporterpipeline.domain.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Growable append-only {@code char} buffer holding the characters of every string column of one {@link PeopleColumns}.
+ * <p>
+ * Values are stored back to back without separators; the columns keep the offset and length of each value.
+ */
+final class CharArena {
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private char[] chars;
+    private int length;
+
+    CharArena(int initialCapacity) {
+        this.chars = new char[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Appends {@code value} and returns the offset of its first character.
+     */
+    int append(String value) {
+        int offset = length;
+        ensureCapacity(value.length());
+        value.getChars(0, value.length(), chars, offset);
+        length += value.length();
+        return offset;
+    }
+
+    char[] chars() {
+        return chars;
+    }
+
+    int length() {
+        return length;
+    }
+
+    private void ensureCapacity(int extra) {
+        long required = (long) length + extra;
+        if (required <= chars.length) {
+            return;
+        }
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("Column arena cannot hold more than " + MAX_CAPACITY + " characters");
+        }
+        chars = Arrays.copyOf(chars, (int) Math.min(MAX_CAPACITY, Math.max(required, (long) chars.length << 1)));
+    }
+}
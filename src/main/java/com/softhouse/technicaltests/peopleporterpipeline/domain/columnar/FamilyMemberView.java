@@ -0,0 +1,80 @@
+package com.softhouse.technicaltests.peopleporterpipeline.domain.columnar;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Address;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.FamilyMember;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Phone;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.contract.AddressHolder;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.contract.PhoneHolder;
+
+/**
+ * Read-only view of one family member row of a {@link PeopleColumns}.
+ * <p>
+ * Field values are materialized on access; {@link #hasAddress()} and {@link #hasPhone()} are answered from the columns
+ * without creating the {@link Address} or {@link Phone}. The setters of the holder contracts are not supported.
+ */
+public final class FamilyMemberView implements PhoneHolder, AddressHolder {
+
+    private final PeopleColumns columns;
+    private final int row;
+
+    FamilyMemberView(PeopleColumns columns, int row) {
+        this.columns = columns;
+        this.row = row;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public String getName() {
+        return columns.familyName().get(row);
+    }
+
+    public String getBorn() {
+        return columns.familyBorn().get(row);
+    }
+
+    @Override
+    public Address getAddress() {
+        return columns.familyAddress().get(row);
+    }
+
+    @Override
+    public void setAddress(Address address) {
+        throw new UnsupportedOperationException("FamilyMemberView is read-only");
+    }
+
+    @Override
+    public boolean hasAddress() {
+        return columns.familyAddress().isPresent(row);
+    }
+
+    @Override
+    public Phone getPhone() {
+        return columns.familyPhone().get(row);
+    }
+
+    @Override
+    public void setPhone(Phone phone) {
+        throw new UnsupportedOperationException("FamilyMemberView is read-only");
+    }
+
+    @Override
+    public boolean hasPhone() {
+        return columns.familyPhone().isPresent(row);
+    }
+
+    public FamilyMember toFamilyMember() {
+        FamilyMember member = new FamilyMember();
+        member.setName(getName());
+        member.setBorn(getBorn());
+        member.setAddress(getAddress());
+        member.setPhone(getPhone());
+        return member;
+    }
+
+    @Override
+    public String toString() {
+        return toFamilyMember().toString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.softhouse.technicaltests.peopleporterpipeline.domain.columnar;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.FamilyMember;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Struct-of-arrays alternative to {@link People}, for aggregating many persons with little per-person overhead.
+ * <p>
+ * Instead of a {@code Person}, {@code Address}, {@code Phone} and {@code ArrayList} object per person (plus one of each
+ * per family member), every field is a {@link StringColumn} whose characters live in a single shared arena, and the
+ * family members of all persons are rows of a second table. Person {@code i} owns the family member rows
+ * {@link #familyStart(int)} (inclusive) to {@link #familyEnd(int)} (exclusive).
+ * <p>
+ * Persons are only appended; the source {@link Person} can be discarded afterwards. They are read back as lightweight
+ * {@link PersonView} and {@link FamilyMemberView} objects, or column by column, as {@code PeopleXmlWriter} does to write
+ * the document without materializing any beans. The container is not thread-safe, which matches how the aggregator
+ * updates a group under its lock. The arena holds at most about 2 billion characters.
+ */
+public final class PeopleColumns extends AbstractList<PersonView> {
+
+    private static final int INITIAL_ROWS = 1024;
+
+    private final CharArena arena = new CharArena(INITIAL_ROWS * 64);
+
+    private final StringColumn firstname = new StringColumn(arena, INITIAL_ROWS);
+    private final StringColumn lastname = new StringColumn(arena, INITIAL_ROWS);
+    private final AddressColumns address = new AddressColumns(arena, INITIAL_ROWS);
+    private final PhoneColumns phone = new PhoneColumns(arena, INITIAL_ROWS);
+    private int[] familyStarts = new int[INITIAL_ROWS + 1];
+    private int personCount;
+
+    private final StringColumn familyName = new StringColumn(arena, INITIAL_ROWS);
+    private final StringColumn familyBorn = new StringColumn(arena, INITIAL_ROWS);
+    private final AddressColumns familyAddress = new AddressColumns(arena, INITIAL_ROWS);
+    private final PhoneColumns familyPhone = new PhoneColumns(arena, INITIAL_ROWS);
+    private int familyMemberCount;
+
+    /**
+     * Appends the fields of {@code person} and its family members.
+     */
+    public void append(Person person) {
+        firstname.add(person.getFirstname());
+        lastname.add(person.getLastname());
+        address.add(person.getAddress());
+        phone.add(person.getPhone());
+
+        for (FamilyMember member : person.getFamilyMembers()) {
+            familyName.add(member.getName());
+            familyBorn.add(member.getBorn());
+            familyAddress.add(member.getAddress());
+            familyPhone.add(member.getPhone());
+            familyMemberCount++;
+        }
+
+        if (personCount + 1 == familyStarts.length) {
+            familyStarts = Arrays.copyOf(familyStarts, familyStarts.length << 1);
+        }
+        personCount++;
+        familyStarts[personCount] = familyMemberCount;
+        modCount++;
+    }
+
+    @Override
+    public PersonView get(int index) {
+        if (index < 0 || index >= personCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + personCount);
+        }
+        return new PersonView(this, index);
+    }
+
+    @Override
+    public int size() {
+        return personCount;
+    }
+
+    public int familyMemberCount() {
+        return familyMemberCount;
+    }
+
+    /**
+     * Returns the number of characters held by the shared arena.
+     */
+    public int arenaLength() {
+        return arena.length();
+    }
+
+    public int familyStart(int person) {
+        return familyStarts[person];
+    }
+
+    public int familyEnd(int person) {
+        return familyStarts[person + 1];
+    }
+
+    /**
+     * Materializes the persons as a {@link People} object, for consumers that need the bean model.
+     */
+    public People toPeople() {
+        List<Person> people = new ArrayList<>(personCount);
+        for (PersonView view : this) {
+            people.add(view.toPerson());
+        }
+        return new People(people);
+    }
+
+    public StringColumn firstname() {
+        return firstname;
+    }
+
+    public StringColumn lastname() {
+        return lastname;
+    }
+
+    public AddressColumns address() {
+        return address;
+    }
+
+    public PhoneColumns phone() {
+        return phone;
+    }
+
+    public StringColumn familyName() {
+        return familyName;
+    }
+
+    public StringColumn familyBorn() {
+        return familyBorn;
+    }
+
+    public AddressColumns familyAddress() {
+        return familyAddress;
+    }
+
+    public PhoneColumns familyPhone() {
+        return familyPhone;
+    }
+}
@@ -0,0 +1,105 @@
+package com.softhouse.technicaltests.peopleporterpipeline.domain.columnar;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Address;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Phone;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.contract.AddressHolder;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.contract.PhoneHolder;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Read-only view of one person row of a {@link PeopleColumns}.
+ * <p>
+ * Field values are materialized on access; {@link #hasAddress()} and {@link #hasPhone()} are answered from the columns
+ * without creating the {@link Address} or {@link Phone}. The setters of the holder contracts are not supported.
+ */
+public final class PersonView implements PhoneHolder, AddressHolder {
+
+    private final PeopleColumns columns;
+    private final int row;
+
+    PersonView(PeopleColumns columns, int row) {
+        this.columns = columns;
+        this.row = row;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public String getFirstname() {
+        return columns.firstname().get(row);
+    }
+
+    public String getLastname() {
+        return columns.lastname().get(row);
+    }
+
+    @Override
+    public Address getAddress() {
+        return columns.address().get(row);
+    }
+
+    @Override
+    public void setAddress(Address address) {
+        throw new UnsupportedOperationException("PersonView is read-only");
+    }
+
+    @Override
+    public boolean hasAddress() {
+        return columns.address().isPresent(row);
+    }
+
+    @Override
+    public Phone getPhone() {
+        return columns.phone().get(row);
+    }
+
+    @Override
+    public void setPhone(Phone phone) {
+        throw new UnsupportedOperationException("PersonView is read-only");
+    }
+
+    @Override
+    public boolean hasPhone() {
+        return columns.phone().isPresent(row);
+    }
+
+    public List<FamilyMemberView> getFamilyMembers() {
+        int start = columns.familyStart(row);
+        int size = columns.familyEnd(row) - start;
+        return new AbstractList<>() {
+            @Override
+            public FamilyMemberView get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+                }
+                return new FamilyMemberView(columns, start + index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public Person toPerson() {
+        Person person = new Person();
+        person.setFirstname(getFirstname());
+        person.setLastname(getLastname());
+        person.setAddress(getAddress());
+        person.setPhone(getPhone());
+        for (FamilyMemberView member : getFamilyMembers()) {
+            person.getFamilyMembers().add(member.toFamilyMember());
+        }
+        return person;
+    }
+
+    @Override
+    public String toString() {
+        return toPerson().toString();
+    }
+}
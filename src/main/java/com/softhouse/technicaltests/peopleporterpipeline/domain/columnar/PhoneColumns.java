@@ -0,0 +1,58 @@
+package com.softhouse.technicaltests.peopleporterpipeline.domain.columnar;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Phone;
+
+import java.util.BitSet;
+
+/**
+ * The {@link Phone} fields of a person or family member table, one row per person or family member.
+ * <p>
+ * Rows without a phone hold {@code null} in every column and are told apart from a phone without any numbers
+ * by {@link #isPresent(int)}.
+ */
+public final class PhoneColumns {
+
+    private final BitSet present = new BitSet();
+    private final StringColumn mobile;
+    private final StringColumn landLine;
+    private int size;
+
+    PhoneColumns(CharArena arena, int initialCapacity) {
+        this.mobile = new StringColumn(arena, initialCapacity);
+        this.landLine = new StringColumn(arena, initialCapacity);
+    }
+
+    void add(Phone phone) {
+        if (phone != null) {
+            present.set(size);
+        }
+        mobile.add(phone != null ? phone.getMobile() : null);
+        landLine.add(phone != null ? phone.getLandLine() : null);
+        size++;
+    }
+
+    public boolean isPresent(int row) {
+        return present.get(row);
+    }
+
+    /**
+     * Materializes the phone of {@code row}, {@code null} if it has none.
+     */
+    public Phone get(int row) {
+        if (!isPresent(row)) {
+            return null;
+        }
+        Phone phone = new Phone();
+        phone.setMobile(mobile.get(row));
+        phone.setLandLine(landLine.get(row));
+        return phone;
+    }
+
+    public StringColumn mobile() {
+        return mobile;
+    }
+
+    public StringColumn landLine() {
+        return landLine;
+    }
+}
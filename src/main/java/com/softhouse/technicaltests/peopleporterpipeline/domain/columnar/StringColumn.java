@@ -0,0 +1,75 @@
+package com.softhouse.technicaltests.peopleporterpipeline.domain.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A column of nullable strings stored in a shared {@link CharArena}.
+ * <p>
+ * Each row is an offset into the arena and a length, {@code -1} for {@code null}. {@link #get(int)} materializes a
+ * {@link String}; writers that only need the characters use {@link #chars()}, {@link #offset(int)} and
+ * {@link #length(int)} instead.
+ */
+public final class StringColumn {
+
+    private static final int NULL_LENGTH = -1;
+
+    private final CharArena arena;
+    private int[] offsets;
+    private int[] lengths;
+    private int size;
+
+    StringColumn(CharArena arena, int initialCapacity) {
+        this.arena = arena;
+        this.offsets = new int[initialCapacity];
+        this.lengths = new int[initialCapacity];
+    }
+
+    void add(String value) {
+        if (size == offsets.length) {
+            int capacity = Math.max(8, size << 1);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        if (value == null) {
+            lengths[size] = NULL_LENGTH;
+        } else {
+            offsets[size] = arena.append(value);
+            lengths[size] = value.length();
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        return lengths[checkRow(row)] == NULL_LENGTH;
+    }
+
+    public String get(int row) {
+        return isNull(row) ? null : new String(arena.chars(), offsets[row], lengths[row]);
+    }
+
+    /**
+     * Returns the arena backing this column. Only valid until the next value is added, and must not be modified.
+     */
+    public char[] chars() {
+        return arena.chars();
+    }
+
+    public int offset(int row) {
+        return offsets[checkRow(row)];
+    }
+
+    public int length(int row) {
+        return lengths[checkRow(row)];
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return row;
+    }
+}
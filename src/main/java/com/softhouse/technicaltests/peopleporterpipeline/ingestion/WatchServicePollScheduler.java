@@ -0,0 +1,146 @@
+package com.softhouse.technicaltests.peopleporterpipeline.ingestion;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Consumer;
+import org.apache.camel.component.file.FileEndpoint;
+import org.apache.camel.spi.ScheduledPollConsumerScheduler;
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A {@link ScheduledPollConsumerScheduler} that runs the polls of a file consumer when its directory changes, instead
+ * of at a fixed interval. It is set on a file endpoint with its {@code scheduler} option.
+ *
+ * <p>The directory is registered with a {@link WatchService} for created and modified entries, and a single thread
+ * waits for its events. Once an event arrives, every event already pending is drained and one poll is run, so a burst
+ * of events costs a single directory scan and an idle directory is not scanned at all. Events arriving during a poll
+ * trigger the next one. Deletions, such as processed files being moved away, do not trigger a poll. When the scheduler
+ * starts, one poll picks up the files that were already there; lost events ({@code OVERFLOW}) also trigger a poll. If
+ * the directory is deleted, it is created and watched again.</p>
+ *
+ * <p>Whether a file is completely written is still decided by the file consumer, through its done file or read lock
+ * options. On platforms without native change notification the JDK watches the directory by polling it itself.</p>
+ */
+public class WatchServicePollScheduler extends ServiceSupport implements ScheduledPollConsumerScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchServicePollScheduler.class);
+
+    private CamelContext camelContext;
+    private Path directory;
+    private volatile Runnable task;
+    private WatchService watchService;
+    private volatile ExecutorService watcher;
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @Override
+    public void onInit(Consumer consumer) {
+        if (!(consumer.getEndpoint() instanceof FileEndpoint endpoint)) {
+            throw new IllegalArgumentException("Only file endpoints can be watched: " + consumer.getEndpoint());
+        }
+        this.directory = endpoint.getFile().toPath();
+    }
+
+    @Override
+    public void scheduleTask(Runnable task) {
+        this.task = task;
+    }
+
+    @Override
+    public void unscheduleTask() {
+        this.task = null;
+    }
+
+    @Override
+    public synchronized void startScheduler() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            // Registered before the first poll, so no file created in between is missed
+            watchService = directory.getFileSystem().newWatchService();
+            register();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to watch input directory " + directory, e);
+        }
+        watcher = camelContext.getExecutorServiceManager().newSingleThreadExecutor(this, "WatchServicePollScheduler");
+        watcher.execute(this::watch);
+        log.info("Watching {} for input files", directory);
+    }
+
+    @Override
+    public boolean isSchedulerStarted() {
+        return watcher != null;
+    }
+
+    @Override
+    protected synchronized void doStop() throws Exception {
+        if (watcher == null) {
+            return;
+        }
+        // Closing the watch service ends the wait for events; a poll in progress is allowed to finish
+        watchService.close();
+        camelContext.getExecutorServiceManager().shutdown(watcher);
+        watcher = null;
+    }
+
+    private void watch() {
+        poll();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                do {
+                    key.pollEvents();
+                    if (!key.reset()) {
+                        // The directory was deleted; create it again and watch the new one
+                        log.warn("Input directory {} is no longer accessible, watching it again", directory);
+                        register();
+                    }
+                    key = watchService.poll();
+                } while (key != null);
+                poll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", directory);
+        } catch (IOException e) {
+            log.error("Stopped watching {}, input files are no longer picked up", directory, e);
+        }
+    }
+
+    private void register() throws IOException {
+        Files.createDirectories(directory);
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private void poll() {
+        Runnable pollTask = task;
+        if (pollTask != null && isRunAllowed()) {
+            try {
+                pollTask.run();
+            } catch (RuntimeException e) {
+                // The consumer handles its own poll errors; keep watching if one escapes regardless
+                log.warn("Error polling {}", directory, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.softhouse.technicaltests.peopleporterpipeline.input;
+
+/**
+ * A {@link ParsedLine} whose values are offset/length slices of a {@link PersonBlockBytes} block.
+ * <p>
+ * Nothing is decoded while parsing. A value becomes a {@link String} only when {@link #value(int)} is called,
+ * i.e. when it is actually stored on a domain object, and {@link #rawLine()} is only decoded for logging.
+ * The {@code type} is one of the shared {@link com.softhouse.technicaltests.peopleporterpipeline.common.LineType}
+ * constants, so no allocation is needed for it either.
+ * <p>
+ * {@code fieldBounds} holds a start and end offset (exclusive) per value, relative to the block.
+ */
+public record ByteInputLine(String type, PersonBlockBytes block, int lineStart, int lineEnd, int[] fieldBounds)
+        implements ParsedLine {
+
+    @Override
+    public int valueCount() {
+        return fieldBounds.length / 2;
+    }
+
+    @Override
+    public String value(int index) {
+        int start = fieldBounds[index * 2];
+        return block.decode(start, fieldBounds[index * 2 + 1] - start);
+    }
+
+    @Override
+    public String rawLine() {
+        return block.decode(lineStart, lineEnd - lineStart);
+    }
+
+    @Override
+    public String toString() {
+        return "ByteInputLine[type=%s, raw: %s]".formatted(type, rawLine());
+    }
+}
@@ -10,7 +10,23 @@ package com.softhouse.technicaltests.peopleporterpipeline.input;
  *     <li>{@code rawLine} – The original unmodified string from the input file, useful for logging and diagnostics.</li>
  * </ul>
  */
-public record InputLine(String type, String[] values, String rawLine) {
+public record InputLine(String type, String[] values, String rawLine) implements ParsedLine {
+
+    @Override
+    public int valueCount() {
+        return values.length;
+    }
+
+    @Override
+    public String value(int index) {
+        return values[index];
+    }
+
+    @Override
+    public boolean hasValues() {
+        return values != null;
+    }
+
     @Override
     public String toString() {
         return "InputLine[type=%s, values=%s, raw: %s]".formatted(
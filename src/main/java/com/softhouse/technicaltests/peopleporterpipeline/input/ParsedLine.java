@@ -0,0 +1,35 @@
+package com.softhouse.technicaltests.peopleporterpipeline.input;
+
+/**
+ * Read-only view of a parsed input line, independent of how the line was tokenized.
+ * <p>
+ * Implemented by {@link InputLine}, where all values are already materialized as strings, and by
+ * {@link ByteInputLine}, where values are slices of the input bytes that are only decoded when requested.
+ * This lets {@code BuildPersonProcessor} build domain objects from either parser.
+ */
+public interface ParsedLine {
+
+    /**
+     * The line type code, one of the constants in {@link com.softhouse.technicaltests.peopleporterpipeline.common.LineType}.
+     */
+    String type();
+
+    /**
+     * Number of values following the line type.
+     */
+    int valueCount();
+
+    /**
+     * The value at the given index (0 is the first value after the line type).
+     */
+    String value(int index);
+
+    /**
+     * The complete (trimmed) line, for logging and diagnostics.
+     */
+    String rawLine();
+
+    default boolean hasValues() {
+        return true;
+    }
+}
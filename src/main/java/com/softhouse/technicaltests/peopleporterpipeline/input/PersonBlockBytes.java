@@ -0,0 +1,48 @@
+package com.softhouse.technicaltests.peopleporterpipeline.input;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A person block as raw bytes, typically a zero-copy slice of a memory-mapped input file.
+ * <p>
+ * The bytes span from index {@code 0} to {@code bytes.limit()} and are only ever read with absolute
+ * indexes, so the buffer position is irrelevant. {@code charset} is used when field values are decoded;
+ * it must be ASCII compatible since {@code |} and line terminators are matched byte by byte. {@code offset} is the
+ * position of the first byte in the input file, or {@code 0} for blocks that do not come from a file.
+ */
+public record PersonBlockBytes(ByteBuffer bytes, Charset charset, long offset) {
+
+    public PersonBlockBytes(ByteBuffer bytes, Charset charset) {
+        this(bytes, charset, 0);
+    }
+
+    public int length() {
+        return bytes.limit();
+    }
+
+    /**
+     * Returns the position in the input file just past the last byte of this block.
+     */
+    public long endOffset() {
+        return offset + length();
+    }
+
+    public String decode(int offset, int length) {
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + offset, length, charset);
+        }
+        byte[] copy = new byte[length];
+        bytes.get(offset, copy);
+        return new String(copy, charset);
+    }
+
+    public byte byteAt(int index) {
+        return bytes.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return decode(0, length());
+    }
+}
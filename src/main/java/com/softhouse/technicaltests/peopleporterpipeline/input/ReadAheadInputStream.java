@@ -0,0 +1,161 @@
+package com.softhouse.technicaltests.peopleporterpipeline.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link InputStream} that reads its source ahead on another thread, so that CPU-bound work done while reading the
+ * source, such as inflating a gzip stream, overlaps with whatever the consumer does with the bytes.
+ * <p>
+ * A task submitted to the given executor fills fixed-size chunks from the source and hands them over through a bounded
+ * queue of {@code depth} chunks; exhausted chunks are handed back for reuse, so reading ahead allocates nothing after
+ * the first {@code depth + 1} chunks. An {@link IOException} thrown by the source is rethrown to the consumer once the
+ * chunks read before it are consumed.
+ * <p>
+ * The source is closed by the read-ahead task when it reaches the end or fails. {@link #close()} stops the task, which
+ * then closes the source; it must be called if the stream is abandoned before the end, or the task keeps waiting for
+ * the consumer. The stream itself is meant for a single consumer thread.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    public static final int DEFAULT_DEPTH = 4;
+
+    private static final long HANDOFF_POLL_MILLIS = 100;
+
+    private final InputStream source;
+    private final int chunkSize;
+    private final BlockingQueue<Chunk> filled;
+    private final BlockingQueue<byte[]> empty;
+
+    private volatile boolean closed;
+
+    private Chunk current;
+    private int position;
+
+    public ReadAheadInputStream(InputStream source, ExecutorService executor) {
+        this(source, executor, DEFAULT_CHUNK_SIZE, DEFAULT_DEPTH);
+    }
+
+    public ReadAheadInputStream(InputStream source, ExecutorService executor, int chunkSize, int depth) {
+        this.source = Objects.requireNonNull(source, "source");
+        this.chunkSize = chunkSize;
+        this.filled = new ArrayBlockingQueue<>(depth + 1);
+        this.empty = new ArrayBlockingQueue<>(depth + 2);
+        executor.execute(this::readAhead);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current.bytes[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current.bytes, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current != null ? current.length - position : 0;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        filled.clear();
+    }
+
+    // Moves on to the next filled chunk once the current one is exhausted, returns false at the end of the source
+    private boolean ensureAvailable() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (current == null || position == current.length) {
+            if (current != null) {
+                if (current.error != null) {
+                    throw new IOException("Failed to read ahead", current.error);
+                }
+                if (current.isEnd()) {
+                    return false;
+                }
+                empty.offer(current.bytes);
+            }
+            current = take();
+            position = 0;
+        }
+        return true;
+    }
+
+    private Chunk take() throws IOException {
+        try {
+            return filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for input");
+        }
+    }
+
+    private void readAhead() {
+        try (source) {
+            while (!closed) {
+                byte[] bytes = empty.poll();
+                if (bytes == null) {
+                    bytes = new byte[chunkSize];
+                }
+                int length = source.readNBytes(bytes, 0, chunkSize);
+                if (length > 0 && !handOff(new Chunk(bytes, length, null))) {
+                    return;
+                }
+                if (length < chunkSize) {
+                    handOff(Chunk.END);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            handOff(new Chunk(null, 0, e));
+        }
+    }
+
+    // Blocks while the consumer is behind, gives up once the stream is closed
+    private boolean handOff(Chunk chunk) {
+        try {
+            while (!closed) {
+                if (filled.offer(chunk, HANDOFF_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private record Chunk(byte[] bytes, int length, IOException error) {
+
+        static final Chunk END = new Chunk(new byte[0], 0, null);
+
+        boolean isEnd() {
+            return this == END;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.softhouse.technicaltests.peopleporterpipeline.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-size latency histogram with log-linear buckets.
+ * <p>
+ * Every power of two is divided into {@value #SUB_BUCKETS} linear sub-buckets, so any recorded value lands in a bucket
+ * whose width is at most 1/{@value #SUB_BUCKETS} of the value (12.5% relative error) and the whole {@code long} range
+ * fits in {@value #BUCKETS} counters. Recording is a bucket index computation and three uncontended atomic updates,
+ * with no allocation, so it can stay enabled under full load.
+ * <p>
+ * Percentiles are read from a snapshot of the counters and reported as the upper bound of the bucket they fall in,
+ * capped by the exact maximum.
+ */
+public class LatencyHistogram implements RouteLatencyMXBean {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Value (in nanos) below which the given fraction of all recorded values fall, e.g. {@code 0.99} for p99.
+     */
+    public long percentileNanos(double fraction) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / NANOS_PER_MILLI / n;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return percentileNanos(0.50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return percentileNanos(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return max.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + index % SUB_BUCKETS;
+        long upper = ((mantissa + 1) << shift) - 1;
+        // The last bucket's upper bound overflows
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
@@ -0,0 +1,124 @@
+package com.softhouse.technicaltests.peopleporterpipeline.metrics;
+
+import com.softhouse.technicaltests.peopleporterpipeline.dictionary.ValueDictionary;
+import com.softhouse.technicaltests.peopleporterpipeline.exception.BuildPersonProcessorException;
+import com.softhouse.technicaltests.peopleporterpipeline.exception.InputLineParserException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and per-route latency histograms for one pipeline.
+ * <p>
+ * All counters are {@link LongAdder}s, so processors running on many worker threads can update them without
+ * contention. Instances are plain objects; {@link PipelineMetricsService} exposes them over JMX and logs a periodic
+ * summary. Processors created without metrics record into a private instance that nobody reads.
+ */
+public class PipelineMetrics {
+
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder linesParsed = new LongAdder();
+    private final LongAdder personsBuilt = new LongAdder();
+    private final LongAdder blocksRejected = new LongAdder();
+    private final LongAdder filesFailed = new LongAdder();
+    private final LongAdder dictionaryLookups = new LongAdder();
+    private final LongAdder dictionaryHits = new LongAdder();
+    private final Map<String, LatencyHistogram> routeLatencies = new ConcurrentHashMap<>();
+
+    public void addBytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    public void addBytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    public void addLinesParsed(int lines) {
+        linesParsed.add(lines);
+    }
+
+    public void personBuilt() {
+        personsBuilt.increment();
+    }
+
+    /**
+     * Records a person block that was rejected while the rest of its file was processed.
+     */
+    public void blockRejected() {
+        blocksRejected.increment();
+    }
+
+    /**
+     * Records a failed input file. Failures caused by parsing or building a person block also count as a
+     * rejected block.
+     */
+    public void recordFailure(Throwable cause) {
+        filesFailed.increment();
+        if (cause instanceof InputLineParserException || cause instanceof BuildPersonProcessorException) {
+            blocksRejected.increment();
+        }
+    }
+
+    /**
+     * Adds the lookups and hits of a file's value dictionary once the file has been split.
+     */
+    public void recordDictionary(ValueDictionary dictionary) {
+        dictionaryLookups.add(dictionary.getLookups());
+        dictionaryHits.add(dictionary.getHits());
+    }
+
+    public LatencyHistogram routeLatency(String routeId) {
+        return routeLatencies.computeIfAbsent(routeId, id -> new LatencyHistogram());
+    }
+
+    public Map<String, LatencyHistogram> getRouteLatencies() {
+        return routeLatencies;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public long getLinesParsed() {
+        return linesParsed.sum();
+    }
+
+    public long getPersonsBuilt() {
+        return personsBuilt.sum();
+    }
+
+    public long getBlocksRejected() {
+        return blocksRejected.sum();
+    }
+
+    public long getFilesFailed() {
+        return filesFailed.sum();
+    }
+
+    public long getDictionaryLookups() {
+        return dictionaryLookups.sum();
+    }
+
+    public double getDictionaryHitRate() {
+        long lookups = getDictionaryLookups();
+        return lookups == 0 ? 0.0 : (double) dictionaryHits.sum() / lookups;
+    }
+
+    public void reset() {
+        bytesRead.reset();
+        bytesWritten.reset();
+        linesParsed.reset();
+        personsBuilt.reset();
+        blocksRejected.reset();
+        filesFailed.reset();
+        dictionaryLookups.reset();
+        dictionaryHits.reset();
+        routeLatencies.values().forEach(LatencyHistogram::reset);
+    }
+}
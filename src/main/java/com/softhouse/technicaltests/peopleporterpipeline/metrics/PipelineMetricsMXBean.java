@@ -0,0 +1,27 @@
+package com.softhouse.technicaltests.peopleporterpipeline.metrics;
+
+/**
+ * JMX view of the pipeline wide counters, registered once per Camel context by {@link PipelineMetricsService}.
+ */
+public interface PipelineMetricsMXBean {
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    long getLinesParsed();
+
+    long getPersonsBuilt();
+
+    long getBlocksRejected();
+
+    long getFilesFailed();
+
+    long getDictionaryLookups();
+
+    double getDictionaryHitRate();
+
+    int getInflightExchanges();
+
+    void reset();
+}
@@ -0,0 +1,197 @@
+package com.softhouse.technicaltests.peopleporterpipeline.metrics;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.NamedNode;
+import org.apache.camel.spi.RoutePolicy;
+import org.apache.camel.spi.RoutePolicyFactory;
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camel service that publishes {@link PipelineMetrics} and keeps them fed with route latencies.
+ * <p>
+ * As a {@link RoutePolicyFactory} it attaches a {@link RouteLatencyPolicy} to every route of the context. On start
+ * it registers the following MXBeans with the platform MBean server, so they can be read with JConsole, VisualVM or
+ * any JMX client without an external metrics server:
+ * <ul>
+ *     <li>{@value #DOMAIN}{@code :context="<camel context>",type=PipelineMetrics} — counters and in-flight exchanges</li>
+ *     <li>{@value #DOMAIN}{@code :context="<camel context>",type=RouteLatency,route="<route id>"} — count, mean, p50, p99
+ *     and max latency per route</li>
+ * </ul>
+ * If a log interval is configured, a one-line summary per route is logged at that interval whenever new exchanges
+ * have completed since the previous summary.
+ */
+public class PipelineMetricsService extends ServiceSupport implements RoutePolicyFactory, PipelineMetricsMXBean {
+
+    public static final String DOMAIN = "com.softhouse.technicaltests.peopleporterpipeline";
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineMetricsService.class);
+
+    private final CamelContext camelContext;
+    private final PipelineMetrics metrics;
+    private final Duration logInterval;
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+    private long lastLoggedCount = -1;
+
+    public PipelineMetricsService(CamelContext camelContext, PipelineMetrics metrics, Duration logInterval) {
+        this.camelContext = camelContext;
+        this.metrics = metrics;
+        this.logInterval = logInterval;
+    }
+
+    @Override
+    public RoutePolicy createRoutePolicy(CamelContext context, String routeId, NamedNode route) {
+        LatencyHistogram histogram = metrics.routeLatency(routeId);
+        if (isStarted()) {
+            registerRoute(routeId, histogram);
+        }
+        return new RouteLatencyPolicy(routeId, histogram);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        register(objectName("type=PipelineMetrics"), this);
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getRouteLatencies().entrySet()) {
+            registerRoute(entry.getKey(), entry.getValue());
+        }
+
+        if (logInterval != null && logInterval.isPositive()) {
+            scheduler = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "pipeline-metrics");
+            long millis = logInterval.toMillis();
+            scheduler.scheduleAtFixedRate(this::logSummary, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() {
+        if (scheduler != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(scheduler);
+            scheduler = null;
+            logSummary();
+        }
+        synchronized (registered) {
+            for (ObjectName name : registered) {
+                try {
+                    mbeanServer.unregisterMBean(name);
+                } catch (JMException e) {
+                    log.debug("Failed to unregister {}", name, e);
+                }
+            }
+            registered.clear();
+        }
+    }
+
+    /**
+     * Logs the counters and the latency of every route, unless nothing has completed since the last summary.
+     */
+    public synchronized void logSummary() {
+        long completed = metrics.getRouteLatencies().values().stream().mapToLong(LatencyHistogram::getCount).sum();
+        if (completed == lastLoggedCount) {
+            return;
+        }
+        lastLoggedCount = completed;
+
+        log.info("Pipeline metrics: bytesRead={}, bytesWritten={}, linesParsed={}, personsBuilt={}, blocksRejected={}, filesFailed={}, inflight={}, dictionaryHitRate={}",
+                getBytesRead(), getBytesWritten(), getLinesParsed(), getPersonsBuilt(), getBlocksRejected(),
+                getFilesFailed(), getInflightExchanges(), format(getDictionaryHitRate()));
+        metrics.getRouteLatencies().forEach((routeId, latency) ->
+                log.info("Route {}: count={}, mean={}ms, p50={}ms, p99={}ms, max={}ms", routeId, latency.getCount(),
+                        format(latency.getMeanMillis()), format(latency.getP50Millis()),
+                        format(latency.getP99Millis()), format(latency.getMaxMillis())));
+    }
+
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public long getBytesRead() {
+        return metrics.getBytesRead();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return metrics.getBytesWritten();
+    }
+
+    @Override
+    public long getLinesParsed() {
+        return metrics.getLinesParsed();
+    }
+
+    @Override
+    public long getPersonsBuilt() {
+        return metrics.getPersonsBuilt();
+    }
+
+    @Override
+    public long getBlocksRejected() {
+        return metrics.getBlocksRejected();
+    }
+
+    @Override
+    public long getFilesFailed() {
+        return metrics.getFilesFailed();
+    }
+
+    @Override
+    public long getDictionaryLookups() {
+        return metrics.getDictionaryLookups();
+    }
+
+    @Override
+    public double getDictionaryHitRate() {
+        return metrics.getDictionaryHitRate();
+    }
+
+    @Override
+    public int getInflightExchanges() {
+        return camelContext.getInflightRepository().size();
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+
+    private void registerRoute(String routeId, LatencyHistogram histogram) {
+        try {
+            register(objectName("type=RouteLatency,route=" + ObjectName.quote(routeId)), histogram);
+        } catch (JMException e) {
+            log.warn("Failed to register latency MBean for route {}", routeId, e);
+        }
+    }
+
+    private void register(ObjectName name, Object mbean) throws JMException {
+        synchronized (registered) {
+            if (mbeanServer.isRegistered(name)) {
+                mbeanServer.unregisterMBean(name);
+            }
+            mbeanServer.registerMBean(mbean, name);
+            registered.add(name);
+        }
+    }
+
+    private ObjectName objectName(String properties) throws JMException {
+        return new ObjectName(DOMAIN + ":context=" + ObjectName.quote(camelContext.getName()) + "," + properties);
+    }
+
+    private static String format(double millis) {
+        return String.format("%.3f", millis);
+    }
+}
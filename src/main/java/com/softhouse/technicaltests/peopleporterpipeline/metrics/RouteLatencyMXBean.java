@@ -0,0 +1,22 @@
+package com.softhouse.technicaltests.peopleporterpipeline.metrics;
+
+/**
+ * JMX view of the latency of one route, registered per route by {@link PipelineMetricsService}.
+ * <p>
+ * Latency is measured from the moment an exchange enters the route until it is done in that route, so it includes
+ * the time spent in routes called synchronously from it (as Camel's own route statistics do).
+ */
+public interface RouteLatencyMXBean {
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,35 @@
+package com.softhouse.technicaltests.peopleporterpipeline.metrics;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Route;
+import org.apache.camel.support.RoutePolicySupport;
+
+/**
+ * Route policy recording how long each exchange spends in one route into a {@link LatencyHistogram}.
+ * <p>
+ * The start time is kept in an exchange property named after the route, so an exchange passing through several
+ * routes (e.g. via {@code direct:} endpoints) is timed independently in each of them.
+ */
+public class RouteLatencyPolicy extends RoutePolicySupport {
+
+    private final String startProperty;
+    private final LatencyHistogram histogram;
+
+    public RouteLatencyPolicy(String routeId, LatencyHistogram histogram) {
+        this.startProperty = "pipelineMetricsStart." + routeId;
+        this.histogram = histogram;
+    }
+
+    @Override
+    public void onExchangeBegin(Route route, Exchange exchange) {
+        exchange.setProperty(startProperty, System.nanoTime());
+    }
+
+    @Override
+    public void onExchangeDone(Route route, Exchange exchange) {
+        Object start = exchange.removeProperty(startProperty);
+        if (start instanceof Long startNanos) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+}
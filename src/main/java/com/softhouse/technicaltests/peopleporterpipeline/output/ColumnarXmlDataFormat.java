@@ -0,0 +1,44 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.PeopleColumns;
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.spi.DataFormatName;
+import org.apache.camel.support.service.ServiceSupport;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Camel {@link DataFormat} marshalling a columnar {@link PeopleColumns} aggregate with {@link PeopleXmlWriter}, producing
+ * the same document JAXB produces for the equivalent {@code People} object. Unmarshalling is not supported.
+ */
+public class ColumnarXmlDataFormat extends ServiceSupport implements DataFormat, DataFormatName {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String getDataFormatName() {
+        return "people-columnar-xml";
+    }
+
+    @Override
+    public void marshal(Exchange exchange, Object graph, OutputStream stream) throws Exception {
+        PeopleColumns people = exchange.getContext().getTypeConverter().mandatoryConvertTo(PeopleColumns.class, exchange, graph);
+        // Not closed, the stream is owned by Camel
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        PeopleXmlWriter xml = new PeopleXmlWriter(writer);
+        xml.writeStart();
+        xml.writePeople(people);
+        xml.writeEnd();
+    }
+
+    @Override
+    public Object unmarshal(Exchange exchange, InputStream stream) {
+        throw new UnsupportedOperationException(getDataFormatName() + " only supports marshalling");
+    }
+}
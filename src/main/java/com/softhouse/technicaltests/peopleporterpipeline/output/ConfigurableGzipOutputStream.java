@@ -0,0 +1,19 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A {@link GZIPOutputStream} with a configurable compression level ({@code 0}–{@code 9}, or
+ * {@link java.util.zip.Deflater#DEFAULT_COMPRESSION}).
+ */
+public class ConfigurableGzipOutputStream extends GZIPOutputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public ConfigurableGzipOutputStream(OutputStream out, int level) throws IOException {
+        super(out, BUFFER_SIZE);
+        def.setLevel(level);
+    }
+}
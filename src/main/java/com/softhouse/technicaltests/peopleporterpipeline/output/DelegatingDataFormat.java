@@ -0,0 +1,47 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.support.service.ServiceSupport;
+
+/**
+ * Base class of data formats that wrap another {@link DataFormat}, propagating the Camel context and the service
+ * lifecycle to the wrapped one, which Camel only does for the data format used in the route definition.
+ */
+public abstract class DelegatingDataFormat extends ServiceSupport implements DataFormat, CamelContextAware {
+
+    protected final DataFormat delegate;
+    private CamelContext camelContext;
+
+    protected DelegatingDataFormat(DataFormat delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        CamelContextAware.trySetCamelContext(delegate, camelContext);
+        ServiceHelper.initService(delegate);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ServiceHelper.startService(delegate);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopService(delegate);
+    }
+}
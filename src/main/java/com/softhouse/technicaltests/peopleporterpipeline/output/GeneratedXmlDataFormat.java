@@ -0,0 +1,53 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.PeopleXmlSerializer;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import org.apache.camel.Exchange;
+import org.apache.camel.converter.jaxb.JaxbDataFormat;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.spi.DataFormatName;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Camel {@link DataFormat} marshalling a {@link People} object with the generated {@link PeopleXmlSerializer}, as a
+ * drop-in replacement for {@code .marshal().jaxb()}.
+ * <p>
+ * The serializer is generated at build time by
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.codegen.XmlSerializerProcessor} from the JAXB annotations
+ * on the domain model, so the output is identical to JAXB's. Unmarshalling has no generated counterpart and is
+ * delegated to a {@link JaxbDataFormat} bound to {@link People}.
+ */
+public class GeneratedXmlDataFormat extends DelegatingDataFormat implements DataFormatName {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public GeneratedXmlDataFormat() throws JAXBException {
+        super(new JaxbDataFormat(JAXBContext.newInstance(People.class)));
+    }
+
+    @Override
+    public String getDataFormatName() {
+        return "people-xml";
+    }
+
+    @Override
+    public void marshal(Exchange exchange, Object graph, OutputStream stream) throws Exception {
+        People people = exchange.getContext().getTypeConverter().mandatoryConvertTo(People.class, exchange, graph);
+        // Not closed, the stream is owned by Camel
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        PeopleXmlSerializer.write(people, writer);
+    }
+
+    @Override
+    public Object unmarshal(Exchange exchange, InputStream stream) throws Exception {
+        return delegate.unmarshal(exchange, stream);
+    }
+}
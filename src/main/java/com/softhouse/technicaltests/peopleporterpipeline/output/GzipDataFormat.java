@@ -0,0 +1,41 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.spi.DataFormatName;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Camel {@link DataFormat} that gzip-compresses the output of another data format as it is marshalled, at a
+ * configurable compression level, so the uncompressed document is never buffered. Unmarshalling is not supported.
+ */
+public class GzipDataFormat extends DelegatingDataFormat implements DataFormatName {
+
+    private final int level;
+
+    public GzipDataFormat(DataFormat delegate, int level) {
+        super(delegate);
+        this.level = level;
+    }
+
+    @Override
+    public String getDataFormatName() {
+        return "gzip-" + (delegate instanceof DataFormatName named ? named.getDataFormatName() : "data");
+    }
+
+    @Override
+    public void marshal(Exchange exchange, Object graph, OutputStream stream) throws Exception {
+        // Not closed, the stream is owned by Camel; finish() writes the gzip trailer
+        GZIPOutputStream gzip = new ConfigurableGzipOutputStream(stream, level);
+        delegate.marshal(exchange, graph, gzip);
+        gzip.finish();
+    }
+
+    @Override
+    public Object unmarshal(Exchange exchange, InputStream stream) {
+        throw new UnsupportedOperationException(getDataFormatName() + " only supports marshalling");
+    }
+}
@@ -0,0 +1,34 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the {@link PeopleOutputFormat} of an input file by its name.
+ * <p>
+ * The name is matched against the regular expressions of the given overrides in iteration order, and the format of
+ * the first one matching the whole name is used; if none matches, the default format is.
+ */
+public class OutputFormatSelector {
+
+    private final PeopleOutputFormat defaultFormat;
+    private final List<Map.Entry<Pattern, PeopleOutputFormat>> overrides = new ArrayList<>();
+
+    public OutputFormatSelector(PeopleOutputFormat defaultFormat, Map<String, PeopleOutputFormat> overrides) {
+        this.defaultFormat = defaultFormat;
+        overrides.forEach((regex, format) -> this.overrides.add(Map.entry(Pattern.compile(regex), format)));
+    }
+
+    public PeopleOutputFormat select(String fileName) {
+        if (fileName != null) {
+            for (Map.Entry<Pattern, PeopleOutputFormat> override : overrides) {
+                if (override.getKey().matcher(fileName).matches()) {
+                    return override.getValue();
+                }
+            }
+        }
+        return defaultFormat;
+    }
+}
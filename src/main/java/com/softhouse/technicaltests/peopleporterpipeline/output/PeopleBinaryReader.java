@@ -0,0 +1,67 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reader of the length-prefixed binary people format written by {@link PeopleBinaryWriter}.
+ *
+ * <p>{@link #read()} returns the persons one at a time and {@code null} after the end marker. A document that ends
+ * without the end marker is reported as an {@link EOFException}.</p>
+ */
+public class PeopleBinaryReader implements Closeable {
+
+    private final DataInputStream in;
+    private boolean started;
+    private boolean ended;
+
+    public PeopleBinaryReader(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    public Person read() throws IOException {
+        if (!started) {
+            readHeader();
+            started = true;
+        }
+        if (ended) {
+            return null;
+        }
+        int length = in.readInt();
+        if (length == 0) {
+            ended = true;
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Corrupt record length " + length);
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated record, expected " + length + " bytes, got " + bytes.length);
+        }
+        return PersonBinaryCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readHeader() throws IOException {
+        byte[] magic = in.readNBytes(PeopleBinaryWriter.MAGIC.length);
+        if (!Arrays.equals(magic, PeopleBinaryWriter.MAGIC)) {
+            throw new IOException("Not a binary people document");
+        }
+        int version = in.readUnsignedByte();
+        if (version != PeopleBinaryWriter.VERSION) {
+            throw new IOException("Unsupported binary people format version " + version);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writer of the length-prefixed binary people format.
+ *
+ * <p>The document starts with the 4 magic bytes {@code PPLB} and a format version byte. Each person follows as a
+ * record: a big-endian 32-bit length and that many bytes of the person in the {@link PersonBinaryCodec} encoding. A
+ * zero length marks the end of the document, so a truncated file can be told apart from a complete one. Consumers can
+ * skip records without decoding them; {@link PeopleBinaryReader} reads the format back.</p>
+ */
+public class PeopleBinaryWriter implements PeopleWriter {
+
+    static final byte[] MAGIC = {'P', 'P', 'L', 'B'};
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+
+    public PeopleBinaryWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    @Override
+    public void writeStart() throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    @Override
+    public void writePerson(Person person) throws IOException {
+        record.reset();
+        PersonBinaryCodec.write(person, recordOut);
+        out.writeInt(record.size());
+        record.writeTo(out);
+    }
+
+    @Override
+    public void writeEnd() throws IOException {
+        out.writeInt(0);
+        out.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
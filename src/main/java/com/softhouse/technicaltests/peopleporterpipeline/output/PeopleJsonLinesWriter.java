@@ -0,0 +1,158 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Address;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.FamilyMember;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Phone;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Hand-rolled writer of newline-delimited JSON (JSON Lines), one object per person.
+ *
+ * <p>Each line is a JSON object with the fields {@code firstname}, {@code lastname}, {@code address} ({@code street},
+ * {@code city}, {@code postalCode}), {@code phone} ({@code mobile}, {@code landLine}) and {@code family}, an array of
+ * objects with {@code name}, {@code born}, {@code address} and {@code phone}. As in the XML output, {@code null} fields
+ * are omitted; {@code family} is always present. There is no enclosing document, so {@link #writeStart()} writes
+ * nothing and a consumer can process the output line by line.</p>
+ */
+public class PeopleJsonLinesWriter implements PeopleWriter {
+
+    private final Writer writer;
+
+    public PeopleJsonLinesWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeStart() {
+        // No header, every line stands on its own
+    }
+
+    @Override
+    public void writePerson(Person person) throws IOException {
+        writePersonObject(person);
+        writer.write('\n');
+    }
+
+    /**
+     * Writes the JSON object of {@code person} without the line terminator, for embedding it in another object.
+     */
+    public void writePersonObject(Person person) throws IOException {
+        writer.write('{');
+        boolean first = field("firstname", person.getFirstname(), true);
+        first = field("lastname", person.getLastname(), first);
+        first = writeAddress(person.getAddress(), first);
+        first = writePhone(person.getPhone(), first);
+        name("family", first);
+        writer.write('[');
+        boolean firstMember = true;
+        for (FamilyMember member : person.getFamilyMembers()) {
+            if (!firstMember) {
+                writer.write(',');
+            }
+            firstMember = false;
+            writer.write('{');
+            boolean firstField = field("name", member.getName(), true);
+            firstField = field("born", member.getBorn(), firstField);
+            firstField = writeAddress(member.getAddress(), firstField);
+            writePhone(member.getPhone(), firstField);
+            writer.write('}');
+        }
+        writer.write("]}");
+    }
+
+    /**
+     * Writes {@code value} as a quoted and escaped JSON string, or {@code null}.
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        escape(value);
+        writer.write('"');
+    }
+
+    @Override
+    public void writeEnd() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private boolean writeAddress(Address address, boolean first) throws IOException {
+        if (address == null) {
+            return first;
+        }
+        name("address", first);
+        writer.write('{');
+        boolean firstField = field("street", address.getStreet(), true);
+        firstField = field("city", address.getCity(), firstField);
+        field("postalCode", address.getPostalCode(), firstField);
+        writer.write('}');
+        return false;
+    }
+
+    private boolean writePhone(Phone phone, boolean first) throws IOException {
+        if (phone == null) {
+            return first;
+        }
+        name("phone", first);
+        writer.write('{');
+        boolean firstField = field("mobile", phone.getMobile(), true);
+        field("landLine", phone.getLandLine(), firstField);
+        writer.write('}');
+        return false;
+    }
+
+    // Writes a string field unless the value is null, returns whether the next field is still the first one
+    private boolean field(String name, String value, boolean first) throws IOException {
+        if (value == null) {
+            return first;
+        }
+        name(name, first);
+        writeString(value);
+        return false;
+    }
+
+    private void name(String name, boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        writer.write('"');
+        writer.write(name);
+        writer.write("\":");
+    }
+
+    private void escape(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (replacement != null) {
+                writer.write(value, start, i - start);
+                writer.write(replacement);
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+    }
+}
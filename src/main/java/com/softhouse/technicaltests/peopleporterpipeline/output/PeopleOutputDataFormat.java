@@ -0,0 +1,65 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.PeopleColumns;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.PersonView;
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.spi.DataFormatName;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_OUTPUT_FORMAT;
+
+/**
+ * Camel {@link DataFormat} writing an aggregated {@link People} or {@link PeopleColumns} body in the
+ * {@link PeopleOutputFormat} selected for the file, taken from the
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_OUTPUT_FORMAT} property.
+ * <p>
+ * {@link OutputFormat#XML}, also used when no format is selected, is delegated to the configured XML data format.
+ * Other formats are written person by person through their {@link PeopleWriter}; the persons of a columnar aggregate
+ * are materialized one at a time. Unmarshalling is not supported.
+ */
+public class PeopleOutputDataFormat extends DelegatingDataFormat implements DataFormatName {
+
+    public PeopleOutputDataFormat(DataFormat xmlDataFormat) {
+        super(xmlDataFormat);
+    }
+
+    @Override
+    public String getDataFormatName() {
+        return "people-output";
+    }
+
+    @Override
+    public void marshal(Exchange exchange, Object graph, OutputStream stream) throws Exception {
+        PeopleOutputFormat format = exchange.getProperty(PROPERTY_OUTPUT_FORMAT, OutputFormat.XML, PeopleOutputFormat.class);
+        if (format == OutputFormat.XML) {
+            delegate.marshal(exchange, graph, stream);
+            return;
+        }
+
+        // Not closed, the stream is owned by Camel; writeEnd() flushes
+        PeopleWriter writer = format.newWriter(stream);
+        writer.writeStart();
+        if (graph instanceof PeopleColumns columns) {
+            for (PersonView person : columns) {
+                writer.writePerson(person.toPerson());
+            }
+        } else {
+            People people = exchange.getContext().getTypeConverter().mandatoryConvertTo(People.class, exchange, graph);
+            for (Person person : people.getPeople()) {
+                writer.writePerson(person);
+            }
+        }
+        writer.writeEnd();
+    }
+
+    @Override
+    public Object unmarshal(Exchange exchange, InputStream stream) {
+        throw new UnsupportedOperationException(getDataFormatName() + " only supports marshalling");
+    }
+}
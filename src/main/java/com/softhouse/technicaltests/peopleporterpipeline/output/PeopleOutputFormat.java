@@ -0,0 +1,24 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service provider interface for the format the converted persons are written in.
+ *
+ * <p>The built-in formats are the constants of {@link com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat};
+ * other formats can be plugged in by implementing this interface and passing the implementation to the pipeline
+ * options. Implementations must be thread-safe, as a new writer is created for every output file.</p>
+ */
+public interface PeopleOutputFormat {
+
+    /**
+     * Extension of files in this format, without the leading dot, e.g. {@code xml}.
+     */
+    String getFileExtension();
+
+    /**
+     * Creates a writer producing a document in this format on {@code out}.
+     */
+    PeopleWriter newWriter(OutputStream out) throws IOException;
+}
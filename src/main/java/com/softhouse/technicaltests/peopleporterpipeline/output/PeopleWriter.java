@@ -0,0 +1,25 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Incremental writer of a people document in some output format.
+ *
+ * <p>Usage is {@link #writeStart()}, then {@link #writePerson(Person)} once per person, then {@link #writeEnd()}, which
+ * also flushes. Implementations buffer as little as their format allows, so persons can be streamed to the output as
+ * they are built. Closing the writer closes the underlying stream.</p>
+ *
+ * @see PeopleOutputFormat
+ */
+public interface PeopleWriter extends Closeable, Flushable {
+
+    void writeStart() throws IOException;
+
+    void writePerson(Person person) throws IOException;
+
+    void writeEnd() throws IOException;
+}
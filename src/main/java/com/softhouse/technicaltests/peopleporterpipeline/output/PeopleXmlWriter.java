@@ -0,0 +1,242 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Address;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.FamilyMember;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Phone;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.AddressColumns;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.PeopleColumns;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.PhoneColumns;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.columnar.StringColumn;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Hand-rolled incremental XML writer for the {@code <people>} document.
+ *
+ * <p>The output is byte-compatible with what JAXB produces for {@link com.softhouse.technicaltests.peopleporterpipeline.domain.People}
+ * with formatted output enabled: the same XML declaration, four-space indentation, element names taken from the
+ * domain model's JAXB annotations, {@code null} fields omitted and only {@code &}, {@code <}, {@code >} and carriage returns
+ * escaped in text content. Like JAXB, a document without any person is written as an empty {@code <people/>} element,
+ * so the root start tag is only written with the first person.</p>
+ *
+ * <p>Usage is {@link #writeStart()}, then {@link #writePerson(Person)} once per person, then {@link #writeEnd()}.
+ * Nothing is buffered beyond the underlying {@link Writer}, so persons reach the output as soon as they are written.</p>
+ *
+ * <p>{@link #writePeople(PeopleColumns)} writes every person of a columnar aggregate straight from its columns,
+ * copying characters out of the shared arena without creating any {@code Person} or {@code String}.</p>
+ */
+public class PeopleXmlWriter implements PeopleWriter {
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private final Writer writer;
+
+    // Set by writeStart() until the first person is written; a writer appending to a resumed document never sets it
+    private boolean rootPending;
+
+    public PeopleXmlWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeStart() throws IOException {
+        writer.write(XML_DECLARATION);
+        rootPending = true;
+    }
+
+    @Override
+    public void writePerson(Person person) throws IOException {
+        openRoot();
+        startElement(1, "person");
+        textElement(2, "firstname", person.getFirstname());
+        textElement(2, "lastname", person.getLastname());
+        writeAddress(2, person.getAddress());
+        writePhone(2, person.getPhone());
+        for (FamilyMember member : person.getFamilyMembers()) {
+            writeFamilyMember(member);
+        }
+        endElement(1, "person");
+    }
+
+    public void writePeople(PeopleColumns people) throws IOException {
+        for (int row = 0; row < people.size(); row++) {
+            openRoot();
+            startElement(1, "person");
+            textElement(2, "firstname", people.firstname(), row);
+            textElement(2, "lastname", people.lastname(), row);
+            writeAddress(2, people.address(), row);
+            writePhone(2, people.phone(), row);
+            for (int member = people.familyStart(row); member < people.familyEnd(row); member++) {
+                startElement(2, "family");
+                textElement(3, "name", people.familyName(), member);
+                textElement(3, "born", people.familyBorn(), member);
+                writeAddress(3, people.familyAddress(), member);
+                writePhone(3, people.familyPhone(), member);
+                endElement(2, "family");
+            }
+            endElement(1, "person");
+        }
+    }
+
+    @Override
+    public void writeEnd() throws IOException {
+        writer.write(rootPending ? "<people/>\n" : "</people>\n");
+        rootPending = false;
+        writer.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void openRoot() throws IOException {
+        if (rootPending) {
+            writer.write("<people>\n");
+            rootPending = false;
+        }
+    }
+
+    private void writeFamilyMember(FamilyMember member) throws IOException {
+        startElement(2, "family");
+        textElement(3, "name", member.getName());
+        textElement(3, "born", member.getBorn());
+        writeAddress(3, member.getAddress());
+        writePhone(3, member.getPhone());
+        endElement(2, "family");
+    }
+
+    private void writeAddress(int depth, Address address) throws IOException {
+        if (address == null) {
+            return;
+        }
+        startElement(depth, "address");
+        textElement(depth + 1, "street", address.getStreet());
+        textElement(depth + 1, "city", address.getCity());
+        textElement(depth + 1, "postal-code", address.getPostalCode());
+        endElement(depth, "address");
+    }
+
+    private void writePhone(int depth, Phone phone) throws IOException {
+        if (phone == null) {
+            return;
+        }
+        startElement(depth, "phone");
+        textElement(depth + 1, "mobile", phone.getMobile());
+        textElement(depth + 1, "land-line", phone.getLandLine());
+        endElement(depth, "phone");
+    }
+
+    private void writeAddress(int depth, AddressColumns address, int row) throws IOException {
+        if (!address.isPresent(row)) {
+            return;
+        }
+        startElement(depth, "address");
+        textElement(depth + 1, "street", address.street(), row);
+        textElement(depth + 1, "city", address.city(), row);
+        textElement(depth + 1, "postal-code", address.postalCode(), row);
+        endElement(depth, "address");
+    }
+
+    private void writePhone(int depth, PhoneColumns phone, int row) throws IOException {
+        if (!phone.isPresent(row)) {
+            return;
+        }
+        startElement(depth, "phone");
+        textElement(depth + 1, "mobile", phone.mobile(), row);
+        textElement(depth + 1, "land-line", phone.landLine(), row);
+        endElement(depth, "phone");
+    }
+
+    private void startElement(int depth, String name) throws IOException {
+        indent(depth);
+        writer.write('<');
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    private void endElement(int depth, String name) throws IOException {
+        indent(depth);
+        writer.write("</");
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    private void textElement(int depth, String name, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        indent(depth);
+        writer.write('<');
+        writer.write(name);
+        writer.write('>');
+        escape(value);
+        writer.write("</");
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    private void textElement(int depth, String name, StringColumn column, int row) throws IOException {
+        if (column.isNull(row)) {
+            return;
+        }
+        indent(depth);
+        writer.write('<');
+        writer.write(name);
+        writer.write('>');
+        escape(column.chars(), column.offset(row), column.length(row));
+        writer.write("</");
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    private void indent(int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            writer.write("    ");
+        }
+    }
+
+    private void escape(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = escapeChar(value.charAt(i));
+            if (replacement != null) {
+                writer.write(value, start, i - start);
+                writer.write(replacement);
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+    }
+
+    private void escape(char[] chars, int offset, int length) throws IOException {
+        int start = offset;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            String replacement = escapeChar(chars[i]);
+            if (replacement != null) {
+                writer.write(chars, start, i - start);
+                writer.write(replacement);
+                start = i + 1;
+            }
+        }
+        writer.write(chars, start, end - start);
+    }
+
+    private static String escapeChar(char c) {
+        return switch (c) {
+            case '&' -> "&amp;";
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '\r' -> "&#13;";
+            default -> null;
+        };
+    }
+}
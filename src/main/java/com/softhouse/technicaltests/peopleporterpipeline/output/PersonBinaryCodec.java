@@ -0,0 +1,135 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Address;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.FamilyMember;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Phone;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of a {@link Person} and everything it contains.
+ *
+ * <p>Fields are written in declaration order without names or tags. Strings are a varint of the UTF-8 length plus one
+ * followed by the bytes, where {@code 0} stands for {@code null}. An address or phone is a presence byte followed by
+ * its fields, and family members are a varint count followed by each member. A typical person takes little more than
+ * the length of its input block.</p>
+ */
+public final class PersonBinaryCodec {
+
+    private PersonBinaryCodec() {
+    }
+
+    public static void write(Person person, DataOutput out) throws IOException {
+        writeString(person.getFirstname(), out);
+        writeString(person.getLastname(), out);
+        writeAddress(person.getAddress(), out);
+        writePhone(person.getPhone(), out);
+        writeVarInt(person.getFamilyMembers().size(), out);
+        for (FamilyMember member : person.getFamilyMembers()) {
+            writeString(member.getName(), out);
+            writeString(member.getBorn(), out);
+            writeAddress(member.getAddress(), out);
+            writePhone(member.getPhone(), out);
+        }
+    }
+
+    public static Person read(DataInput in) throws IOException {
+        Person person = new Person();
+        person.setFirstname(readString(in));
+        person.setLastname(readString(in));
+        person.setAddress(readAddress(in));
+        person.setPhone(readPhone(in));
+        int familyMembers = readVarInt(in);
+        for (int i = 0; i < familyMembers; i++) {
+            FamilyMember member = new FamilyMember();
+            member.setName(readString(in));
+            member.setBorn(readString(in));
+            member.setAddress(readAddress(in));
+            member.setPhone(readPhone(in));
+            person.getFamilyMembers().add(member);
+        }
+        return person;
+    }
+
+    private static void writeAddress(Address address, DataOutput out) throws IOException {
+        out.writeBoolean(address != null);
+        if (address != null) {
+            writeString(address.getStreet(), out);
+            writeString(address.getCity(), out);
+            writeString(address.getPostalCode(), out);
+        }
+    }
+
+    private static Address readAddress(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Address address = new Address();
+        address.setStreet(readString(in));
+        address.setCity(readString(in));
+        address.setPostalCode(readString(in));
+        return address;
+    }
+
+    private static void writePhone(Phone phone, DataOutput out) throws IOException {
+        out.writeBoolean(phone != null);
+        if (phone != null) {
+            writeString(phone.getMobile(), out);
+            writeString(phone.getLandLine(), out);
+        }
+    }
+
+    private static Phone readPhone(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Phone phone = new Phone();
+        phone.setMobile(readString(in));
+        phone.setLandLine(readString(in));
+        return phone;
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+        if (value == null) {
+            writeVarInt(0, out);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1, out);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(int value, DataOutput out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,234 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.checkpoint.Checkpoint;
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * An open output file that persons are appended to while the input file is still being split.
+ *
+ * <p>The target file is opened once, the start of the document (the {@code <people>} root for XML) is written
+ * immediately in the given {@link PeopleOutputFormat}, and each {@link Person} is appended by {@link #write(Person)} as
+ * it arrives. {@link #finish()} ends the document and closes the file. If processing fails before that, {@link #abort()} closes the file and deletes
+ * the partial output so no truncated document is left behind. If ending the document fails, {@link #finish()} deletes
+ * the partial output itself.</p>
+ *
+ * <p>When created with an input file and a positive checkpoint interval, a {@link Checkpoint} recording the input
+ * offset of the last written person and the output length at that point is saved to a sidecar file at most once per
+ * interval. If a matching checkpoint is found when the output is opened (i.e. the JVM died while processing the same
+ * input), the output is truncated to the checkpointed length and appended to, and {@link #getResumeOffset()} tells
+ * the splitter where to continue. The sidecar is deleted when the output is finished or aborted.</p>
+ *
+ * <p>When created with compression, the document is gzip-compressed as it is written. Compressed output cannot be
+ * checkpointed, as a deflate stream cannot be truncated and resumed.</p>
+ *
+ * <p>Writes are synchronized, so a single instance can safely be shared by the exchanges of one split.</p>
+ */
+public class StreamingPeopleOutput {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingPeopleOutput.class);
+
+    private final Path target;
+    private final FileChannel channel;
+    private final PeopleWriter writer;
+
+    private final Path input;
+    private final long inputLength;
+    private final long inputLastModified;
+    private final Path checkpointFile;
+    private final long checkpointIntervalNanos;
+    private final long resumeOffset;
+
+    private long personCount;
+    private long inputOffset;
+    private long lastCheckpointNanos;
+    private boolean closed;
+
+    public StreamingPeopleOutput(Path target) throws IOException {
+        this(target, null, Duration.ZERO);
+    }
+
+    public StreamingPeopleOutput(Path target, Path input, Duration checkpointInterval) throws IOException {
+        this(target, input, checkpointInterval, OutputFormat.XML, false, 0);
+    }
+
+    public StreamingPeopleOutput(Path target, Path input, Duration checkpointInterval, PeopleOutputFormat format,
+                                 boolean compress, int compressionLevel) throws IOException {
+        this.target = target;
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        boolean checkpointing = input != null && checkpointInterval.isPositive();
+        if (checkpointing && compress) {
+            throw new IllegalArgumentException("Compressed streaming output cannot be checkpointed: " + target);
+        }
+        this.input = input;
+        this.inputLength = checkpointing ? Files.size(input) : 0;
+        this.inputLastModified = checkpointing ? Files.getLastModifiedTime(input).toMillis() : 0;
+        this.checkpointFile = Checkpoint.sidecarFor(target);
+        this.checkpointIntervalNanos = checkpointing ? checkpointInterval.toNanos() : 0;
+
+        Checkpoint resume = checkpointing ? loadResumableCheckpoint() : null;
+        this.channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (resume != null) {
+            channel.truncate(resume.outputLength());
+            channel.position(resume.outputLength());
+            this.personCount = resume.personCount();
+            this.inputOffset = resume.inputOffset();
+            log.info("Resuming {} at byte {} of {}, {} persons already written to {}",
+                    input, inputOffset, inputLength, personCount, target);
+        } else {
+            channel.truncate(0);
+        }
+
+        OutputStream out = Channels.newOutputStream(channel);
+        if (compress) {
+            out = new ConfigurableGzipOutputStream(out, compressionLevel);
+        }
+        this.writer = format.newWriter(out);
+        if (resume == null) {
+            this.writer.writeStart();
+        }
+        this.resumeOffset = inputOffset;
+        this.lastCheckpointNanos = System.nanoTime();
+    }
+
+    public void write(Person person) {
+        write(person, -1);
+    }
+
+    /**
+     * Appends a person built from the input block ending at {@code inputOffset}, or {@code -1} if unknown.
+     */
+    public synchronized void write(Person person, long inputOffset) {
+        if (closed) {
+            throw new IllegalStateException("Streaming output already closed: " + target);
+        }
+        try {
+            writer.writePerson(person);
+            personCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write person to " + target, e);
+        }
+        if (inputOffset >= 0) {
+            this.inputOffset = inputOffset;
+            if (checkpointIntervalNanos > 0 && System.nanoTime() - lastCheckpointNanos >= checkpointIntervalNanos) {
+                saveCheckpoint();
+            }
+        }
+    }
+
+    public synchronized void finish() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        boolean finished = false;
+        try {
+            try (writer) {
+                writer.writeEnd();
+            }
+            finished = true;
+            log.info("Wrote {} persons to {}", personCount, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to complete " + target, e);
+        } finally {
+            if (!finished) {
+                // Closed already, so abort() would leave the truncated document behind
+                deleteTarget();
+            }
+            deleteCheckpoint();
+        }
+    }
+
+    public synchronized void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.close();
+            Files.deleteIfExists(target);
+            log.warn("Discarded partial output {} after {} persons", target, personCount);
+        } catch (IOException e) {
+            log.warn("Failed to discard partial output {}", target, e);
+        } finally {
+            deleteCheckpoint();
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the input offset processing resumes from, {@code 0} unless a checkpoint was resumed.
+     */
+    public long getResumeOffset() {
+        return resumeOffset;
+    }
+
+    private Checkpoint loadResumableCheckpoint() {
+        try {
+            Checkpoint checkpoint = Checkpoint.load(checkpointFile).orElse(null);
+            if (checkpoint != null && checkpoint.isResumableFor(input, inputLength, inputLastModified, target)) {
+                return checkpoint;
+            }
+            if (checkpoint != null) {
+                log.warn("Ignoring stale checkpoint {} for {}", checkpointFile, input);
+            }
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable checkpoint {}", checkpointFile, e);
+        }
+        deleteCheckpoint();
+        return null;
+    }
+
+    // Checkpoint failures are logged rather than failing the file; at worst more work is redone after a crash
+    private void saveCheckpoint() {
+        try {
+            writer.flush();
+            channel.force(false);
+            new Checkpoint(input.toAbsolutePath().normalize().toString(), inputLength, inputLastModified,
+                    inputOffset, channel.position(), personCount).save(checkpointFile);
+            lastCheckpointNanos = System.nanoTime();
+        } catch (IOException e) {
+            log.warn("Failed to save checkpoint {}", checkpointFile, e);
+        }
+    }
+
+    private void deleteTarget() {
+        try {
+            Files.deleteIfExists(target);
+            log.warn("Discarded partial output {} after {} persons", target, personCount);
+        } catch (IOException e) {
+            log.warn("Failed to discard partial output {}", target, e);
+        }
+    }
+
+    private void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete checkpoint {}", checkpointFile, e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.common.LineType;
+import com.softhouse.technicaltests.peopleporterpipeline.exception.InputLineParserException;
+import com.softhouse.technicaltests.peopleporterpipeline.input.ByteInputLine;
+import com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes;
+import com.softhouse.technicaltests.peopleporterpipeline.metrics.PipelineMetrics;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A byte-level alternative to {@link InputLineParser} that parses a {@link PersonBlockBytes} block into a list of
+ * {@link ByteInputLine} objects without decoding or copying the input.
+ *
+ * <p>Lines are found by scanning for {@code \n} and {@code \r} bytes and fields by scanning for {@code |}. Each
+ * value is recorded as an offset/length slice of the block and is only turned into a {@link String} when it is
+ * read, i.e. when {@code BuildPersonProcessor} stores it on a domain object.</p>
+ *
+ * <p>Validation follows {@link InputLineParser} exactly: lines are trimmed, empty lines are skipped, trailing empty
+ * fields are dropped (as {@code String.split} does), and an {@link InputLineParserException} is thrown for unsupported
+ * line types or lines without values. Unicode line separators other than {@code \n}, {@code \r\n} and {@code \r}
+ * are not recognised.</p>
+ */
+public class ByteInputLineParser implements Processor {
+
+    private static final byte FIELD_SEPARATOR = '|';
+
+    private final PipelineMetrics metrics;
+
+    public ByteInputLineParser() {
+        this(new PipelineMetrics());
+    }
+
+    public ByteInputLineParser(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        PersonBlockBytes block = exchange.getIn().getMandatoryBody(PersonBlockBytes.class);
+        List<ByteInputLine> inputLines = parse(block);
+        metrics.addLinesParsed(inputLines.size());
+        exchange.getIn().setBody(inputLines);
+    }
+
+    public List<ByteInputLine> parse(PersonBlockBytes block) {
+        List<ByteInputLine> inputLines = new ArrayList<>();
+        int[] bounds = new int[8];
+        int length = block.length();
+        int pos = 0;
+
+        while (pos < length) {
+            int lineStart = pos;
+            int lineEnd = pos;
+            while (lineEnd < length && !isLineTerminator(block.byteAt(lineEnd))) {
+                lineEnd++;
+            }
+
+            pos = lineEnd;
+            if (pos < length && block.byteAt(pos) == '\r') {
+                pos++;
+            }
+            if (pos < length && block.byteAt(pos) == '\n') {
+                pos++;
+            }
+
+            while (lineStart < lineEnd && isTrimmable(block.byteAt(lineStart))) {
+                lineStart++;
+            }
+            while (lineEnd > lineStart && isTrimmable(block.byteAt(lineEnd - 1))) {
+                lineEnd--;
+            }
+            if (lineStart == lineEnd) {
+                continue;
+            }
+
+            int typeEnd = indexOfSeparator(block, lineStart, lineEnd);
+            String lineType = lineType(block, lineStart, typeEnd);
+            if (lineType == null) {
+                throw new InputLineParserException("Unsupported line type: '%s' in line: %s".formatted(
+                        block.decode(lineStart, typeEnd - lineStart), block.decode(lineStart, lineEnd - lineStart)));
+            }
+
+            // A line without any separator has no values at all
+            int fieldCount = 0;
+            int fieldStart = typeEnd < lineEnd ? typeEnd + 1 : lineEnd + 1;
+            while (fieldStart <= lineEnd) {
+                int fieldEnd = indexOfSeparator(block, fieldStart, lineEnd);
+                if (bounds.length < (fieldCount + 1) * 2) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                bounds[fieldCount * 2] = fieldStart;
+                bounds[fieldCount * 2 + 1] = fieldEnd;
+                fieldCount++;
+                fieldStart = fieldEnd + 1;
+            }
+
+            // Drop trailing empty fields, like String.split does
+            while (fieldCount > 0 && bounds[fieldCount * 2 - 1] == bounds[fieldCount * 2 - 2]) {
+                fieldCount--;
+            }
+
+            if (fieldCount == 0 || (fieldCount == 1 && isBlank(block, bounds[0], bounds[1]))) {
+                throw new InputLineParserException("Line type '%s' is missing expected values in line: %s".formatted(
+                        lineType, block.decode(lineStart, lineEnd - lineStart)));
+            }
+
+            inputLines.add(new ByteInputLine(lineType, block, lineStart, lineEnd, Arrays.copyOf(bounds, fieldCount * 2)));
+        }
+
+        return inputLines;
+    }
+
+    private static int indexOfSeparator(PersonBlockBytes block, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (block.byteAt(i) == FIELD_SEPARATOR) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static String lineType(PersonBlockBytes block, int start, int end) {
+        if (end - start != 1) {
+            return null;
+        }
+        return switch (block.byteAt(start)) {
+            case 'P' -> LineType.PERSON;
+            case 'T' -> LineType.PHONE;
+            case 'A' -> LineType.ADDRESS;
+            case 'F' -> LineType.FAMILY_MEMBER;
+            default -> null;
+        };
+    }
+
+    private static boolean isBlank(PersonBlockBytes block, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = block.byteAt(i);
+            if (b < 0) {
+                // Non-ASCII, let String decide about Unicode whitespace
+                return block.decode(start, end - start).isBlank();
+            }
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLineTerminator(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private static boolean isTrimmable(byte b) {
+        // Same rule as String.trim(): any code point up to and including space
+        return b >= 0 && b <= ' ';
+    }
+}
@@ -0,0 +1,22 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.delta.DeltaTracker;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_DELTA_TRACKER;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that completes the {@link DeltaTracker} once the split has finished,
+ * writing the removed persons and replacing the delta index.
+ */
+public class FinishDeltaTrackerProcessor implements Processor {
+
+    @Override
+    public void process(Exchange exchange) {
+        DeltaTracker tracker = exchange.getProperty(PROPERTY_DELTA_TRACKER, DeltaTracker.class);
+        if (tracker != null) {
+            tracker.finish();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.output.StreamingPeopleOutput;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_STREAMING_OUTPUT;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that completes the streaming output once the split has finished,
+ * writing the closing {@code </people>} tag and closing the output file.
+ */
+public class FinishStreamingOutputProcessor implements Processor {
+
+    @Override
+    public void process(Exchange exchange) {
+        StreamingPeopleOutput output = exchange.getProperty(PROPERTY_STREAMING_OUTPUT, StreamingPeopleOutput.class);
+        if (output != null) {
+            output.finish();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.common.LineType;
+import com.softhouse.technicaltests.peopleporterpipeline.dictionary.ValueDictionary;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.exception.InputLineParserException;
+import com.softhouse.technicaltests.peopleporterpipeline.input.ParsedLine;
+import com.softhouse.technicaltests.peopleporterpipeline.metrics.PipelineMetrics;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_VALUE_DICTIONARY;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that turns a person block string directly into a {@link Person},
+ * fusing the work of {@link InputLineParser} and {@link BuildPersonProcessor} into a single pass.
+ *
+ * <p>The block is scanned once, character by character. Each line is tokenized into a reused {@link ParsedLine}
+ * view holding field bounds only, and is fed straight into a {@link PersonAssembler}, so no intermediate
+ * {@code List<InputLine>}, field arrays or exchange hops are needed. Substrings are only created for values that
+ * end up on a domain object.</p>
+ *
+ * <p>Tokenization and validation follow {@link InputLineParser} (line breaks as matched by {@code \R}, trimming,
+ * dropping of trailing empty fields, same {@link InputLineParserException} messages), and building follows
+ * {@link BuildPersonProcessor} through the shared {@link PersonAssembler}, including deduplication through the file's
+ * {@link ValueDictionary}.</p>
+ */
+public class FusedPersonBlockProcessor implements Processor {
+
+    private static final Logger log = LoggerFactory.getLogger(FusedPersonBlockProcessor.class);
+
+    private static final char FIELD_SEPARATOR = '|';
+
+    private final PipelineMetrics metrics;
+
+    public FusedPersonBlockProcessor() {
+        this(new PipelineMetrics());
+    }
+
+    public FusedPersonBlockProcessor(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void process(Exchange exchange) {
+        String block = exchange.getIn().getBody(String.class);
+        Person person = build(block, exchange.getProperty(PROPERTY_VALUE_DICTIONARY, ValueDictionary.class));
+
+        log.debug("Built Person: {}", person);
+        exchange.getIn().setBody(person);
+    }
+
+    public Person build(String block) {
+        return build(block, null);
+    }
+
+    public Person build(String block, ValueDictionary dictionary) {
+        PersonAssembler assembler = new PersonAssembler(dictionary);
+        LineView line = new LineView(block);
+        int length = block.length();
+        int pos = 0;
+        int lineCount = 0;
+
+        while (pos < length) {
+            int lineStart = pos;
+            int lineEnd = pos;
+            while (lineEnd < length && !isLineBreak(block.charAt(lineEnd))) {
+                lineEnd++;
+            }
+            // Consecutive breaks (e.g. \r\n) only produce empty lines, which are skipped below
+            pos = lineEnd + 1;
+
+            while (lineStart < lineEnd && block.charAt(lineStart) <= ' ') {
+                lineStart++;
+            }
+            while (lineEnd > lineStart && block.charAt(lineEnd - 1) <= ' ') {
+                lineEnd--;
+            }
+            if (lineStart < lineEnd) {
+                line.tokenize(lineStart, lineEnd);
+                assembler.accept(line);
+                lineCount++;
+            }
+        }
+
+        Person person = assembler.build();
+        metrics.addLinesParsed(lineCount);
+        metrics.personBuilt();
+        return person;
+    }
+
+    private static boolean isLineBreak(char c) {
+        return switch (c) {
+            case '\n', '\u000B', '\u000C', '\r', '\u0085', '\u2028', '\u2029' -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Mutable {@link ParsedLine} over a region of the block, re-pointed at every line.
+     */
+    private static final class LineView implements ParsedLine {
+
+        private final String text;
+
+        private String type;
+        private int lineStart;
+        private int lineEnd;
+        private int[] bounds = new int[8];
+        private int fieldCount;
+
+        private LineView(String text) {
+            this.text = text;
+        }
+
+        private void tokenize(int start, int end) {
+            lineStart = start;
+            lineEnd = end;
+
+            int typeEnd = text.indexOf(FIELD_SEPARATOR, start);
+            if (typeEnd < 0 || typeEnd > end) {
+                typeEnd = end;
+            }
+            type = lineType(start, typeEnd);
+            if (type == null) {
+                throw new InputLineParserException("Unsupported line type: '%s' in line: %s".formatted(
+                        text.substring(start, typeEnd), rawLine()));
+            }
+
+            // A line without any separator has no values at all
+            fieldCount = 0;
+            int fieldStart = typeEnd < end ? typeEnd + 1 : end + 1;
+            while (fieldStart <= end) {
+                int fieldEnd = text.indexOf(FIELD_SEPARATOR, fieldStart);
+                if (fieldEnd < 0 || fieldEnd > end) {
+                    fieldEnd = end;
+                }
+                if (bounds.length < (fieldCount + 1) * 2) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                bounds[fieldCount * 2] = fieldStart;
+                bounds[fieldCount * 2 + 1] = fieldEnd;
+                fieldCount++;
+                fieldStart = fieldEnd + 1;
+            }
+
+            // Drop trailing empty fields, like String.split does
+            while (fieldCount > 0 && bounds[fieldCount * 2 - 1] == bounds[fieldCount * 2 - 2]) {
+                fieldCount--;
+            }
+
+            if (fieldCount == 0 || (fieldCount == 1 && isBlank(bounds[0], bounds[1]))) {
+                throw new InputLineParserException(
+                        "Line type '%s' is missing expected values in line: %s".formatted(type, rawLine()));
+            }
+        }
+
+        private String lineType(int start, int end) {
+            if (end - start != 1) {
+                return null;
+            }
+            return switch (text.charAt(start)) {
+                case 'P' -> LineType.PERSON;
+                case 'T' -> LineType.PHONE;
+                case 'A' -> LineType.ADDRESS;
+                case 'F' -> LineType.FAMILY_MEMBER;
+                default -> null;
+            };
+        }
+
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (!Character.isWhitespace(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String type() {
+            return type;
+        }
+
+        @Override
+        public int valueCount() {
+            return fieldCount;
+        }
+
+        @Override
+        public String value(int index) {
+            return text.substring(bounds[index * 2], bounds[index * 2 + 1]);
+        }
+
+        @Override
+        public String rawLine() {
+            return text.substring(lineStart, lineEnd);
+        }
+
+        @Override
+        public String toString() {
+            return "InputLine[type=%s, raw: %s]".formatted(type, rawLine());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.softhouse.technicaltests.peopleporterpipeline.processors;
 import com.softhouse.technicaltests.peopleporterpipeline.common.LineType;
 import com.softhouse.technicaltests.peopleporterpipeline.exception.InputLineParserException;
 import com.softhouse.technicaltests.peopleporterpipeline.input.InputLine;
+import com.softhouse.technicaltests.peopleporterpipeline.metrics.PipelineMetrics;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 
@@ -37,6 +38,16 @@ public class InputLineParser implements Processor {
     private static final Pattern LINE_SPLITTER = Pattern.compile("\\R");
     private static final Pattern FIELD_SPLITTER = Pattern.compile("\\|");
 
+    private final PipelineMetrics metrics;
+
+    public InputLineParser() {
+        this(new PipelineMetrics());
+    }
+
+    public InputLineParser(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public void process(Exchange exchange) {
         String lines = exchange.getIn().getBody(String.class);
@@ -64,6 +75,7 @@ public class InputLineParser implements Processor {
             }
         }
 
+        metrics.addLinesParsed(inputLines.size());
         exchange.getIn().setBody(inputLines);
     }
 }
@@ -0,0 +1,46 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.common.MicroBatch;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that applies a per-block processor to every item of a
+ * {@link MicroBatch} body, in order, and replaces the body with a batch of the results.
+ *
+ * <p>The wrapped processor sees the same exchange, with one item at a time as its body, so the file's properties
+ * (value dictionary, streaming output, delta tracker) are available as usual. Bodies that are not batches are passed
+ * to the wrapped processor unchanged. An exception thrown for any item fails the whole batch.</p>
+ */
+public class MicroBatchProcessor implements Processor {
+
+    private final Processor delegate;
+
+    public MicroBatchProcessor(Processor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        if (!(exchange.getIn().getBody() instanceof MicroBatch batch)) {
+            delegate.process(exchange);
+            return;
+        }
+
+        List<Object> results = new ArrayList<>(batch.size());
+        for (Object item : batch.items()) {
+            exchange.getIn().setBody(item);
+            delegate.process(exchange);
+            results.add(exchange.getIn().getBody());
+        }
+        exchange.getIn().setBody(new MicroBatch(results));
+    }
+
+    @Override
+    public String toString() {
+        return "microBatch(" + delegate + ")";
+    }
+}
@@ -0,0 +1,32 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.reject.RejectedBlockWriter;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_BLOCK_START_LINE;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_PERSON_BLOCK;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_REJECTED_BLOCK_WRITER;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} used as the splitter's {@code onPrepare} step, which records the input
+ * line a person block starts at and keeps a reference to the block as read, in case it is rejected later on.
+ *
+ * <p>{@code onPrepare} runs while the splitter iterates, one block at a time and in input order, even when the blocks
+ * are then processed in parallel, so the lines of every block are counted exactly once.</p>
+ */
+public class NumberPersonBlockProcessor implements Processor {
+
+    @Override
+    public void process(Exchange exchange) {
+        RejectedBlockWriter writer = exchange.getProperty(PROPERTY_REJECTED_BLOCK_WRITER, RejectedBlockWriter.class);
+
+        if (writer == null) {
+            throw new IllegalStateException("No reject file open for exchange. Property missing: " + PROPERTY_REJECTED_BLOCK_WRITER);
+        }
+
+        Object block = exchange.getIn().getBody();
+        exchange.setProperty(PROPERTY_BLOCK_START_LINE, writer.nextBlockStartLine(block));
+        exchange.setProperty(PROPERTY_PERSON_BLOCK, block);
+    }
+}
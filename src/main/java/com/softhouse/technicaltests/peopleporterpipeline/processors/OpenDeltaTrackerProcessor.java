@@ -0,0 +1,45 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.delta.DeltaTracker;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+
+import java.nio.file.Path;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_DELTA_TRACKER;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that opens a {@link DeltaTracker} for the input file before it is split.
+ *
+ * <p>The tracker's index and delta files are named after the input file without its extensions, so successive runs of
+ * a file with the same name are compared with each other. The tracker is stored in the
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_DELTA_TRACKER} exchange
+ * property; if the exchange completes without it having been finished, the partial delta is discarded.</p>
+ *
+ * @see TrackPersonDeltaProcessor
+ * @see FinishDeltaTrackerProcessor
+ */
+public class OpenDeltaTrackerProcessor implements Processor {
+
+    private final Path directory;
+
+    public OpenDeltaTrackerProcessor(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        String fileName = exchange.getIn().getHeader(Exchange.FILE_NAME_ONLY, String.class);
+        int extension = fileName.indexOf('.');
+        DeltaTracker tracker = new DeltaTracker(directory, extension > 0 ? fileName.substring(0, extension) : fileName);
+        exchange.setProperty(PROPERTY_DELTA_TRACKER, tracker);
+
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                tracker.abort();
+            }
+        });
+    }
+}
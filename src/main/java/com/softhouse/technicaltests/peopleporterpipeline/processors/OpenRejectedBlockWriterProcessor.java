@@ -0,0 +1,45 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.reject.RejectedBlockWriter;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+
+import java.nio.file.Path;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_REJECTED_BLOCK_WRITER;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that opens a {@link RejectedBlockWriter} for the input file before it is
+ * split.
+ *
+ * <p>The reject file is named after the input file without its extensions. The writer is stored in the
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_REJECTED_BLOCK_WRITER}
+ * exchange property and closed when the exchange completes, whether the file succeeded or failed.</p>
+ *
+ * @see NumberPersonBlockProcessor
+ * @see RejectPersonBlockProcessor
+ */
+public class OpenRejectedBlockWriterProcessor implements Processor {
+
+    private final Path directory;
+
+    public OpenRejectedBlockWriterProcessor(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        String fileName = exchange.getIn().getHeader(Exchange.FILE_NAME_ONLY, String.class);
+        int extension = fileName.indexOf('.');
+        RejectedBlockWriter writer = new RejectedBlockWriter(directory, extension > 0 ? fileName.substring(0, extension) : fileName);
+        exchange.setProperty(PROPERTY_REJECTED_BLOCK_WRITER, writer);
+
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                writer.close();
+            }
+        });
+    }
+}
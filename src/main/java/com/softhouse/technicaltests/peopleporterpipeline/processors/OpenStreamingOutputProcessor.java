@@ -0,0 +1,101 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleOutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.output.StreamingPeopleOutput;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Processor;
+import org.apache.camel.component.file.FileEndpoint;
+import org.apache.camel.support.SynchronizationAdapter;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_OUTPUT_FORMAT;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_RESUME_OFFSET;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_STREAMING_OUTPUT;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that opens the output file for streaming output, before the input
+ * file is split into person blocks.
+ *
+ * <p>The output URI is resolved the same way {@code toD(outputUri)} would resolve it, including simple expressions
+ * such as {@code ${file:name.noext}}, and must point to a {@code file:} endpoint. The target path is the endpoint
+ * directory combined with its {@code fileName} option, or the {@code CamelFileName} header when no file name is
+ * configured.</p>
+ *
+ * <p>The opened {@link StreamingPeopleOutput} is stored in the {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_STREAMING_OUTPUT}
+ * exchange property, which the splitter copies to every person exchange. If the exchange completes without the output
+ * having been finished (e.g. a block failed and the file was sent to the error endpoint), the partial output is discarded.</p>
+ *
+ * <p>With a positive checkpoint interval the output is checkpointed against the input file, and if an earlier run
+ * left a matching checkpoint behind, the {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_RESUME_OFFSET}
+ * property is set to the input offset the splitter should continue from.</p>
+ *
+ * <p>The output is written in the format selected for the file in the
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_OUTPUT_FORMAT} property,
+ * XML if none is. With compression enabled the output is gzip-compressed as it is written.</p>
+ *
+ * @see WritePersonProcessor
+ * @see FinishStreamingOutputProcessor
+ */
+public class OpenStreamingOutputProcessor implements Processor {
+
+    private final String outputUri;
+    private final Duration checkpointInterval;
+    private final boolean compress;
+    private final int compressionLevel;
+
+    public OpenStreamingOutputProcessor(String outputUri) {
+        this(outputUri, Duration.ZERO);
+    }
+
+    public OpenStreamingOutputProcessor(String outputUri, Duration checkpointInterval) {
+        this(outputUri, checkpointInterval, false, 0);
+    }
+
+    public OpenStreamingOutputProcessor(String outputUri, Duration checkpointInterval, boolean compress, int compressionLevel) {
+        this.outputUri = outputUri;
+        this.checkpointInterval = checkpointInterval;
+        this.compress = compress;
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Path input = checkpointInterval.isPositive() ? exchange.getIn().getMandatoryBody(File.class).toPath() : null;
+        StreamingPeopleOutput output = new StreamingPeopleOutput(resolveTarget(exchange), input, checkpointInterval,
+                exchange.getProperty(PROPERTY_OUTPUT_FORMAT, OutputFormat.XML, PeopleOutputFormat.class),
+                compress, compressionLevel);
+        exchange.setProperty(PROPERTY_STREAMING_OUTPUT, output);
+        if (output.getResumeOffset() > 0) {
+            exchange.setProperty(PROPERTY_RESUME_OFFSET, output.getResumeOffset());
+        }
+
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                output.abort();
+            }
+        });
+    }
+
+    private Path resolveTarget(Exchange exchange) {
+        String uri = exchange.getContext().resolveLanguage("simple").createExpression(outputUri).evaluate(exchange, String.class);
+        Endpoint endpoint = exchange.getContext().getEndpoint(uri);
+
+        if (!(endpoint instanceof FileEndpoint fileEndpoint)) {
+            throw new IllegalArgumentException("Streaming output requires a file endpoint, got: " + uri);
+        }
+
+        Expression fileNameExpression = fileEndpoint.getFileName();
+        String fileName = fileNameExpression != null
+                ? fileNameExpression.evaluate(exchange, String.class)
+                : exchange.getIn().getHeader(Exchange.FILE_NAME, String.class);
+
+        return fileEndpoint.getFile().toPath().resolve(fileName);
+    }
+}
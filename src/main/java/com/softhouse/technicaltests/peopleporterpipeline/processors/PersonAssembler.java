@@ -0,0 +1,168 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.dictionary.ValueDictionary;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Address;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.FamilyMember;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Phone;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.contract.AddressHolder;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.contract.PhoneHolder;
+import com.softhouse.technicaltests.peopleporterpipeline.exception.BuildPersonProcessorException;
+import com.softhouse.technicaltests.peopleporterpipeline.input.ParsedLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.LineType.*;
+
+/**
+ * Single-use state machine that builds one {@link Person} from the lines of a person block, fed one line at a time.
+ *
+ * <p>This holds the building rules shared by {@link BuildPersonProcessor} and {@link FusedPersonBlockProcessor}:
+ * the first line must be a {@code P} line, {@code A} and {@code T} lines attach to the current family member if there
+ * is one and to the person otherwise, and a second phone or address for the same holder is ignored with a warning.
+ * Violations result in a {@link BuildPersonProcessorException}.</p>
+ *
+ * <p>Lines are not retained after {@link #accept(ParsedLine)} returns, so callers may pass a reused, mutable line view.</p>
+ *
+ * <p>If a {@link ValueDictionary} is given, the values of addresses, phones and family members are canonicalized
+ * through it, so that values repeated across persons share one instance.</p>
+ */
+public class PersonAssembler {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonAssembler.class);
+
+    private final ValueDictionary dictionary;
+
+    private Person person;
+    private FamilyMember currentFamily;
+    private boolean firstLine = true;
+
+    public PersonAssembler() {
+        this(null);
+    }
+
+    public PersonAssembler(ValueDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public void accept(ParsedLine inputLine) {
+        if (firstLine && inputLine != null && !PERSON.equals(inputLine.type())) {
+            throw new BuildPersonProcessorException("First line must be of type '" + PERSON + "', found: " + inputLine.type());
+        }
+        firstLine = false;
+
+        if (inputLine == null || !inputLine.hasValues()) {
+            log.warn("Skipping null or malformed InputLine: {}", inputLine);
+            return;
+        }
+
+        switch (inputLine.type()) {
+            case PERSON -> {
+                person = handlePersonLine(inputLine);
+                currentFamily = null;
+            }
+            case ADDRESS -> handleAddressLine(inputLine, person, currentFamily);
+            case PHONE -> handlePhoneLine(inputLine, person, currentFamily);
+            case FAMILY_MEMBER -> {
+                currentFamily = handleFamilyLine(inputLine, person);
+                person.getFamilyMembers().add(currentFamily);
+            }
+            default -> throw new BuildPersonProcessorException("Unexpected line type: " + inputLine.type());
+        }
+    }
+
+    public Person build() {
+        if (firstLine) {
+            throw new BuildPersonProcessorException("No lines provided to build a Person.");
+        }
+        if (person == null) {
+            throw new BuildPersonProcessorException("Person block missing a '" + PERSON + "' line.");
+        }
+        return person;
+    }
+
+    private Person handlePersonLine(ParsedLine line) {
+        if (line.valueCount() < 2) {
+            throw new BuildPersonProcessorException("PERSON line must contain at least 2 values: first and last name.");
+        }
+        Person person = new Person();
+        person.setFirstname(line.value(0));
+        person.setLastname(line.value(1));
+        return person;
+    }
+
+    private void handleAddressLine(ParsedLine line, Person person, FamilyMember family) {
+        if (line.valueCount() < 2) {
+            throw new BuildPersonProcessorException("ADDRESS line must contain at least 2 values: street and city.");
+        }
+
+        Address address = new Address();
+        address.setStreet(dictionaryValue(line, 0));
+        address.setCity(dictionaryValue(line, 1));
+        if (line.valueCount() > 2) {
+            address.setPostalCode(dictionaryValue(line, 2));
+        }
+
+        if (family != null) {
+            setOrWarnAddress(family, address, line);
+        } else if (person != null) {
+            setOrWarnAddress(person, address, line);
+        } else {
+            throw new BuildPersonProcessorException("ADDRESS line found without a PERSON or FAMILY_MEMBER line.");
+        }
+    }
+
+    private void handlePhoneLine(ParsedLine line, Person person, FamilyMember family) {
+        if (line.valueCount() < 1) {
+            throw new BuildPersonProcessorException("PHONE line must contain at least 1 value: mobile number.");
+        }
+
+        Phone phone = new Phone();
+        phone.setMobile(dictionaryValue(line, 0));
+        if (line.valueCount() > 1) {
+            phone.setLandLine(dictionaryValue(line, 1));
+        }
+
+        if (family != null) {
+            setOrWarnPhone(family, phone, line);
+        } else if (person != null) {
+            setOrWarnPhone(person, phone, line);
+        } else {
+            throw new BuildPersonProcessorException("PHONE line found without a PERSON or FAMILY_MEMBER line.");
+        }
+    }
+
+    private FamilyMember handleFamilyLine(ParsedLine line, Person person) {
+        if (person == null) {
+            throw new BuildPersonProcessorException("FAMILY_MEMBER line found before PERSON line.");
+        }
+        if (line.valueCount() < 2) {
+            throw new BuildPersonProcessorException("FAMILY_MEMBER line must contain at least 2 values: first and birth year.");
+        }
+        FamilyMember member = new FamilyMember();
+        member.setName(dictionaryValue(line, 0));
+        member.setBorn(dictionaryValue(line, 1));
+        return member;
+    }
+
+    private String dictionaryValue(ParsedLine line, int index) {
+        String value = line.value(index);
+        return dictionary != null ? dictionary.canonical(value) : value;
+    }
+
+    private void setOrWarnPhone(PhoneHolder holder, Phone phone, ParsedLine inputLine) {
+        if (holder.hasPhone()) {
+            log.warn("Multiple phone entries detected. Ignoring additional input line: {}", inputLine.rawLine());
+        } else {
+            holder.setPhone(phone);
+        }
+    }
+
+    private void setOrWarnAddress(AddressHolder holder, Address address, ParsedLine inputLine) {
+        if (holder.hasAddress()) {
+            log.warn("Multiple address entries detected. Ignoring additional input line: {}", inputLine.rawLine());
+        } else {
+            holder.setAddress(address);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.metrics.PipelineMetrics;
+import com.softhouse.technicaltests.peopleporterpipeline.reject.RejectedBlockWriter;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_BLOCK_REJECTED;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_BLOCK_START_LINE;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_PERSON_BLOCK;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_REJECTED_BLOCK_WRITER;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that writes a person block whose parsing or building failed to the
+ * {@link RejectedBlockWriter} of its file, together with its start line and the caught exception.
+ *
+ * <p>The exchange is marked with the
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_BLOCK_REJECTED} property, so
+ * a resequencer waiting for its split index can skip it instead of waiting forever.</p>
+ */
+public class RejectPersonBlockProcessor implements Processor {
+
+    private final PipelineMetrics metrics;
+
+    public RejectPersonBlockProcessor(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void process(Exchange exchange) {
+        RejectedBlockWriter writer = exchange.getProperty(PROPERTY_REJECTED_BLOCK_WRITER, RejectedBlockWriter.class);
+
+        if (writer == null) {
+            throw new IllegalStateException("No reject file open for exchange. Property missing: " + PROPERTY_REJECTED_BLOCK_WRITER);
+        }
+
+        Throwable cause = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Throwable.class);
+        writer.reject(exchange.getProperty(PROPERTY_BLOCK_START_LINE, -1L, Long.class),
+                exchange.getProperty(Exchange.SPLIT_INDEX, -1, Integer.class),
+                exchange.getProperty(PROPERTY_PERSON_BLOCK), cause);
+        exchange.setProperty(PROPERTY_BLOCK_REJECTED, true);
+        metrics.blockRejected();
+    }
+}
@@ -0,0 +1,29 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.aggregators.SpillingAggregationRepository;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} placed right after aggregation that deletes the spill file of the completed
+ * {@link People} document once the exchange is done, i.e. after the document has been marshalled and written, or
+ * has failed.
+ *
+ * @see SpillingAggregationRepository
+ */
+public class ReleaseSpilledPeopleProcessor implements Processor {
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        People people = exchange.getIn().getMandatoryBody(People.class);
+
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                SpillingAggregationRepository.release(people);
+            }
+        });
+    }
+}
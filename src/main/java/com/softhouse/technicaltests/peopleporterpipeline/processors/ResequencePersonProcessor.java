@@ -0,0 +1,80 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.aggregators.PersonResequencer;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.Processor;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.support.service.ServiceSupport;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_BLOCK_REJECTED;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_PERSON_RESEQUENCER;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that forwards person exchanges to the given endpoint in their original
+ * input order when person blocks are processed in parallel.
+ *
+ * <p>The sequence number is the splitter's {@link Exchange#SPLIT_INDEX} property and the per-file
+ * {@link PersonResequencer} is taken from the {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_PERSON_RESEQUENCER}
+ * property set before splitting. Exchanges may therefore be forwarded by a different thread than the one that built them.
+ * If a forwarded exchange fails downstream, the failure is rethrown on the current exchange so the split stops.
+ * Exchanges of rejected blocks (see {@link RejectPersonBlockProcessor}) only fill their place in the sequence and are
+ * not forwarded.</p>
+ *
+ * <p>The producer template is created on the first forwarded exchange and stopped together with the route.</p>
+ */
+public class ResequencePersonProcessor extends ServiceSupport implements Processor {
+
+    private final String downstreamUri;
+
+    private volatile ProducerTemplate producerTemplate;
+    private volatile Endpoint downstream;
+
+    public ResequencePersonProcessor(String downstreamUri) {
+        this.downstreamUri = downstreamUri;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        PersonResequencer resequencer = exchange.getProperty(PROPERTY_PERSON_RESEQUENCER, PersonResequencer.class);
+        if (resequencer == null) {
+            throw new IllegalStateException("No resequencer available for exchange. Property missing: " + PROPERTY_PERSON_RESEQUENCER);
+        }
+
+        int index = exchange.getProperty(Exchange.SPLIT_INDEX, Integer.class);
+        resequencer.offer(index, exchange, this::forward);
+    }
+
+    private void forward(Exchange exchange) {
+        if (exchange.getProperty(PROPERTY_BLOCK_REJECTED, false, Boolean.class)) {
+            return;
+        }
+        initProducer(exchange);
+        producerTemplate.send(downstream, exchange);
+        if (exchange.getException() != null) {
+            throw new RuntimeCamelException(new CamelExchangeException(
+                    "Failed to forward person block #" + exchange.getProperty(Exchange.SPLIT_INDEX), exchange, exchange.getException()));
+        }
+    }
+
+    @Override
+    protected synchronized void doStop() {
+        ServiceHelper.stopService(producerTemplate);
+        producerTemplate = null;
+        downstream = null;
+    }
+
+    private void initProducer(Exchange exchange) {
+        if (producerTemplate == null) {
+            synchronized (this) {
+                if (producerTemplate == null) {
+                    downstream = exchange.getContext().getEndpoint(downstreamUri);
+                    producerTemplate = exchange.getContext().createProducerTemplate();
+                }
+            }
+        }
+    }
+}
@@ -22,6 +22,10 @@ import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteCons
  * one per person. The processor also sets a property on the exchange to indicate how many person
  * blocks were identified. This property is used later for aggregation logic.</p>
  *
+ * <p>Note that this processor holds the whole input in memory. The main route uses the streaming
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.splitters.PersonBlockSplitter} instead, which
+ * applies the same block rule via {@link #isPersonLine(String)}.</p>
+ *
  * @see com.softhouse.technicaltests.peopleporterpipeline.common.LineType
  * @see com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_EXPECTED_PEOPLE_COUNT
  */
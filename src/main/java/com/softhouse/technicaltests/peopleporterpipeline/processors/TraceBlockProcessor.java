@@ -0,0 +1,26 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.tracing.BlockTracer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that records the current person block passing a pipeline stage in a
+ * {@link BlockTracer}. The body is stored by reference and only formatted if the block is sampled or the trace
+ * buffer is dumped.
+ */
+public class TraceBlockProcessor implements Processor {
+
+    private final BlockTracer tracer;
+    private final String stage;
+
+    public TraceBlockProcessor(BlockTracer tracer, String stage) {
+        this.tracer = tracer;
+        this.stage = stage;
+    }
+
+    @Override
+    public void process(Exchange exchange) {
+        tracer.record(stage, exchange);
+    }
+}
@@ -0,0 +1,27 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.delta.DeltaTracker;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_DELTA_TRACKER;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that passes the {@link Person} in the message body to the
+ * {@link DeltaTracker} opened by {@link OpenDeltaTrackerProcessor}, before the person is aggregated or streamed.
+ */
+public class TrackPersonDeltaProcessor implements Processor {
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Person person = exchange.getIn().getMandatoryBody(Person.class);
+        DeltaTracker tracker = exchange.getProperty(PROPERTY_DELTA_TRACKER, DeltaTracker.class);
+
+        if (tracker == null) {
+            throw new IllegalStateException("No delta tracker open for exchange. Property missing: " + PROPERTY_DELTA_TRACKER);
+        }
+
+        tracker.track(person);
+    }
+}
@@ -0,0 +1,35 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.StreamingPeopleOutput;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_BLOCK_END_OFFSET;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_STREAMING_OUTPUT;
+
+/**
+ * A Camel {@link org.apache.camel.Processor} that appends the {@link Person} in the message body to the
+ * {@link StreamingPeopleOutput} opened by {@link OpenStreamingOutputProcessor}.
+ *
+ * <p>This replaces aggregation in streaming output mode: each person reaches the output file as soon as it is
+ * built, and nothing is retained on the heap afterwards.</p>
+ *
+ * <p>The input offset of the person's block, if recorded in the
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_BLOCK_END_OFFSET} property,
+ * is passed along for checkpointing.</p>
+ */
+public class WritePersonProcessor implements Processor {
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        Person person = exchange.getIn().getMandatoryBody(Person.class);
+        StreamingPeopleOutput output = exchange.getProperty(PROPERTY_STREAMING_OUTPUT, StreamingPeopleOutput.class);
+
+        if (output == null) {
+            throw new IllegalStateException("No streaming output open for exchange. Property missing: " + PROPERTY_STREAMING_OUTPUT);
+        }
+
+        output.write(person, exchange.getProperty(PROPERTY_BLOCK_END_OFFSET, -1L, Long.class));
+    }
+}
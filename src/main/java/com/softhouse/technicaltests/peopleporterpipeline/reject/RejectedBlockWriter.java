@@ -0,0 +1,128 @@
+package com.softhouse.technicaltests.peopleporterpipeline.reject;
+
+import com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleJsonLinesWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Collects the person blocks of one input file that could not be parsed or built, so the rest of the file can still
+ * be processed.
+ * <p>
+ * Rejected blocks are written to {@code <name>.rejected.jsonl}, one JSON object per line with the {@code line} number
+ * the block starts at in the input, the {@code block} index within the split, the {@code error} and the block
+ * {@code text} as it was read. The file is only created once the first block is rejected, and a reject file left by an
+ * earlier run of the same input is removed when the writer is opened.
+ * <p>
+ * Line numbers are assigned by {@link #nextBlockStartLine(Object)}, which must be called for every block in split
+ * order; {@link #reject} is synchronized, as blocks may be parsed and built on several threads.
+ */
+public class RejectedBlockWriter {
+
+    public static final String REJECT_SUFFIX = ".rejected.jsonl";
+
+    private static final Logger log = LoggerFactory.getLogger(RejectedBlockWriter.class);
+
+    private final Path rejectFile;
+
+    private long nextLine = 1;
+    private Writer writer;
+    private PeopleJsonLinesWriter json;
+    private long rejected;
+    private boolean closed;
+
+    public RejectedBlockWriter(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        this.rejectFile = directory.resolve(name + REJECT_SUFFIX);
+        Files.deleteIfExists(rejectFile);
+    }
+
+    /**
+     * Returns the input line number the given block starts at, and advances past its lines. Not thread-safe; the
+     * splitter numbers its blocks one at a time.
+     */
+    public long nextBlockStartLine(Object block) {
+        long startLine = nextLine;
+        nextLine += lineCount(block);
+        return startLine;
+    }
+
+    public synchronized void reject(long line, int blockIndex, Object block, Throwable cause) {
+        if (closed) {
+            throw new IllegalStateException("Reject file already closed: " + rejectFile);
+        }
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8);
+                json = new PeopleJsonLinesWriter(writer);
+            }
+            writer.write("{\"line\":");
+            writer.write(Long.toString(line));
+            writer.write(",\"block\":");
+            writer.write(Integer.toString(blockIndex));
+            writer.write(",\"error\":");
+            json.writeString(String.valueOf(cause.getMessage()));
+            writer.write(",\"text\":");
+            json.writeString(String.valueOf(block));
+            writer.write("}\n");
+            rejected++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write rejected block to " + rejectFile, e);
+        }
+    }
+
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            log.warn("Rejected {} person blocks, written to {}", rejected, rejectFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to complete reject file " + rejectFile, e);
+        }
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public Path getRejectFile() {
+        return rejectFile;
+    }
+
+    private static long lineCount(Object block) {
+        if (block instanceof PersonBlockBytes bytes) {
+            // A slice of the file, so its lines keep their terminators: count them, plus a last line without one
+            long lines = 0;
+            for (int i = 0; i < bytes.length(); i++) {
+                if (bytes.byteAt(i) == '\n') {
+                    lines++;
+                }
+            }
+            return bytes.length() > 0 && bytes.byteAt(bytes.length() - 1) != '\n' ? lines + 1 : lines;
+        }
+        if (block instanceof CharSequence text) {
+            // Lines joined by PersonBlockIterator, which never ends a block with a terminator of its own
+            long lines = 1;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    lines++;
+                }
+            }
+            return lines;
+        }
+        return 0;
+    }
+}
@@ -1,10 +1,79 @@
 package com.softhouse.technicaltests.peopleporterpipeline.routes;
 
+import com.softhouse.technicaltests.peopleporterpipeline.aggregators.ColumnarPeopleAggregationStrategy;
 import com.softhouse.technicaltests.peopleporterpipeline.aggregators.PeopleAggregationStrategy;
+import com.softhouse.technicaltests.peopleporterpipeline.aggregators.PersonResequencer;
+import com.softhouse.technicaltests.peopleporterpipeline.aggregators.SpillingAggregationRepository;
+import com.softhouse.technicaltests.peopleporterpipeline.config.AggregationLayout;
+import com.softhouse.technicaltests.peopleporterpipeline.config.IngestionMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.ParserKind;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineTopology;
+import com.softhouse.technicaltests.peopleporterpipeline.config.XmlMarshaller;
+import com.softhouse.technicaltests.peopleporterpipeline.dictionary.ValueDictionary;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.exception.BuildPersonProcessorException;
+import com.softhouse.technicaltests.peopleporterpipeline.exception.InputLineParserException;
+import com.softhouse.technicaltests.peopleporterpipeline.ingestion.WatchServicePollScheduler;
+import com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes;
+import com.softhouse.technicaltests.peopleporterpipeline.metrics.PipelineMetrics;
+import com.softhouse.technicaltests.peopleporterpipeline.metrics.PipelineMetricsService;
+import com.softhouse.technicaltests.peopleporterpipeline.output.ColumnarXmlDataFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.output.GeneratedXmlDataFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.output.GzipDataFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.output.OutputFormatSelector;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleOutputDataFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.output.StreamingPeopleOutput;
 import com.softhouse.technicaltests.peopleporterpipeline.processors.BuildPersonProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.ByteInputLineParser;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.FinishDeltaTrackerProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.FinishStreamingOutputProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.FusedPersonBlockProcessor;
 import com.softhouse.technicaltests.peopleporterpipeline.processors.InputLineParser;
-import com.softhouse.technicaltests.peopleporterpipeline.processors.SplitPersonBlocksProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.MicroBatchProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.NumberPersonBlockProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.OpenDeltaTrackerProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.OpenRejectedBlockWriterProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.OpenStreamingOutputProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.RejectPersonBlockProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.ReleaseSpilledPeopleProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.ResequencePersonProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.TraceBlockProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.TrackPersonDeltaProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.processors.WritePersonProcessor;
+import com.softhouse.technicaltests.peopleporterpipeline.reject.RejectedBlockWriter;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.MappedPersonBlockSplitter;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.MicroBatchingSplitter;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.PersonBlockSplitter;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.ResequencingWindowSplitter;
+import com.softhouse.technicaltests.peopleporterpipeline.stages.StagedBlocks;
+import com.softhouse.technicaltests.peopleporterpipeline.tracing.BlockTracer;
+import jakarta.xml.bind.JAXBContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Processor;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.converter.jaxb.JaxbDataFormat;
+import org.apache.camel.model.AggregateDefinition;
+import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.model.RouteDefinition;
+import org.apache.camel.model.SplitDefinition;
+import org.apache.camel.model.TryDefinition;
+import org.apache.camel.processor.aggregate.AggregateController;
+import org.apache.camel.processor.aggregate.DefaultAggregateController;
+import org.apache.camel.spi.DataFormat;
+import org.apache.camel.support.service.ServiceSupport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.*;
 
@@ -17,15 +86,19 @@ import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteCons
  * <p>
  * The pipeline is composed of four main stages:
  * <ol>
- *     <li><b>File Ingestion & Splitting</b>: Reads the input file and splits it into blocks per person.</li>
+ *     <li><b>File Ingestion & Splitting</b>: Streams the input file and splits it into blocks per person.</li>
  *     <li><b>Parsing</b>: Each block is parsed into structured {@code InputLine} objects.</li>
  *     <li><b>Transformation</b>: InputLines are converted into fully populated {@code Person} domain objects.</li>
  *     <li><b>Aggregation</b>: All Person objects are aggregated into a {@code People} container and marshalled to XML.</li>
  * </ol>
  * <p>
+ * See {@link PipelineOptions} for the options that change how these stages run, such as the output mode, the
+ * topology, the parser and parallel processing.
+ * <p>
  * This class provides both a default constructor and a customizable constructor for injecting different URIs — useful in integration tests.
  * <p>
- * Errors during processing are caught by a global {@code onException} handler and routed to a dead-letter endpoint.
+ * Errors during processing are caught by a global {@code onException} handler and routed to a dead-letter endpoint. An
+ * input file without any person block, such as an empty file, fails as well.
  *
  * @see org.apache.camel.builder.RouteBuilder
  * @see com.softhouse.technicaltests.peopleporterpipeline.domain.Person
@@ -38,6 +111,13 @@ public class PeoplePorterRoute extends RouteBuilder {
     private final String inputUri;
     private final String outputUri;
     private final String errorUri;
+    private final PipelineOptions options;
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final BlockTracer tracer;
+    private final AggregateController aggregateController = new DefaultAggregateController();
+    private final SpillingAggregationRepository spillingRepository;
+    // Created by the first compressed input file, most routes never read one
+    private ExecutorService decompressionExecutor;
 
     // Constructor using default route URIs
     public PeoplePorterRoute() {
@@ -46,49 +126,457 @@ public class PeoplePorterRoute extends RouteBuilder {
 
     // Constructor allowing custom route URIs (e.g. for testing)
     public PeoplePorterRoute(String inputUri, String outputUri, String errorUri) {
+        this(inputUri, outputUri, errorUri, PipelineOptions.defaults());
+    }
+
+    // Constructor allowing custom route URIs and pipeline options
+    public PeoplePorterRoute(String inputUri, String outputUri, String errorUri, PipelineOptions options) {
         this.inputUri = inputUri;
         this.outputUri = outputUri;
         this.errorUri = errorUri;
+        this.options = options;
+        this.tracer = new BlockTracer(options.getTraceBufferSize(), options.getTraceSampleRate());
+        this.spillingRepository = options.getAggregationSpillThreshold() > 0
+                ? new SpillingAggregationRepository(options.getAggregationSpillDirectory(), options.getAggregationSpillThreshold())
+                : null;
     }
 
     @Override
-    public void configure() {
+    public void configure() throws Exception {
+        PipelineMetricsService metricsService = new PipelineMetricsService(getContext(), metrics, options.getMetricsLogInterval());
+        getContext().addService(metricsService);
+        getContext().addRoutePolicyFactory(metricsService);
+
+        boolean streamingOutput = options.getOutputMode() == OutputMode.STREAMING;
+        boolean parallel = options.isParallelProcessing();
+        boolean mappedBytes = options.getParserKind() == ParserKind.MAPPED_BYTES;
+        boolean fused = options.getTopology() == PipelineTopology.FUSED;
+        boolean staged = options.getTopology() == PipelineTopology.STAGED;
+        boolean checkpointing = options.getCheckpointInterval().isPositive();
+        boolean columnar = options.getAggregationLayout() == AggregationLayout.COLUMNAR;
+        boolean delta = options.getDeltaDirectory() != null;
+        boolean rejecting = options.getRejectDirectory() != null;
+        boolean batching = options.getSplitBatchSize() > 1;
+        int stageWorkers = parallel ? options.getParallelism() : 1;
+        String parseStage = staged ? stageUri(STAGE_PERSON_STRING_TO_INPUT_LINES, stageWorkers) : ROUTE_PERSON_STRING_TO_INPUT_LINES;
+        String buildStage = staged ? stageUri(STAGE_BUILD_PERSON, stageWorkers) : ROUTE_BUILD_PERSON;
+        // A single consumer, as persons reach the output in order
+        String sinkStage = staged ? stageUri(STAGE_PEOPLE_SINK, 1) : ROUTE_PEOPLE_AGGREGATOR;
+        String personSink = parallel ? ROUTE_PEOPLE_RESEQUENCER : sinkStage;
+
+        if (fused && mappedBytes) {
+            throw new IllegalArgumentException("The " + PipelineTopology.FUSED + " topology requires parser kind " + ParserKind.STRING);
+        }
+        if (checkpointing && !(streamingOutput && mappedBytes)) {
+            throw new IllegalArgumentException("Checkpointing requires output mode " + OutputMode.STREAMING
+                    + " and parser kind " + ParserKind.MAPPED_BYTES);
+        }
+        if (checkpointing && delta) {
+            throw new IllegalArgumentException("Checkpointing cannot be combined with delta mode");
+        }
+        if (checkpointing && rejecting) {
+            throw new IllegalArgumentException("Checkpointing cannot be combined with rejecting blocks");
+        }
+        if (checkpointing && options.isCompressOutput()) {
+            throw new IllegalArgumentException("Checkpointing cannot be combined with compressed output");
+        }
+        if (options.getSplitBatchSize() < 1) {
+            throw new IllegalArgumentException("The split batch size must be at least 1: " + options.getSplitBatchSize());
+        }
+        if (!mappedBytes && options.getDecompressionThreads() < 1) {
+            throw new IllegalArgumentException("The number of decompression threads must be at least 1: " + options.getDecompressionThreads());
+        }
+        if (parallel && options.getResequencerCapacity() < 1) {
+            throw new IllegalArgumentException("The resequencer capacity must be at least 1: " + options.getResequencerCapacity());
+        }
+        if (batching && (checkpointing || rejecting)) {
+            throw new IllegalArgumentException("Batching person blocks cannot be combined with checkpointing or rejecting blocks");
+        }
+        if (columnar && (streamingOutput || spillingRepository != null)) {
+            throw new IllegalArgumentException("The " + AggregationLayout.COLUMNAR + " aggregation layout requires output mode "
+                    + OutputMode.AGGREGATE + " without an aggregation spill threshold");
+        }
+
         onException(Exception.class)
                 .handled(true)
                 .useOriginalMessage()
+                .process(this::recordFailure)
                 .to(errorUri)
                 .log("Error processing file: ${header.CamelFileName} - ${exception.message}");
 
         // Route 1: Read file and split into person blocks (strings)
-        from(inputUri)
-                .routeId(ROUTE_ID_READ_AND_SPLIT_PEOPLE)
-                .convertBodyTo(String.class)
-                .process(new SplitPersonBlocksProcessor())
-                .split(body()).streaming().shareUnitOfWork().stopOnException()
-                .log("Splitting person blocks: ${body}")
-                .to(ROUTE_PERSON_STRING_TO_INPUT_LINES);
-
-        // Route 2: Convert each person block string -> InputLines -> Person
-        from(ROUTE_PERSON_STRING_TO_INPUT_LINES)
-                .routeId(ROUTE_ID_PERSON_STRING_TO_INPUT_LINES)
-                .process(new InputLineParser())
-                .log("Converting person block to InputLines: ${body}")
-                .to(ROUTE_BUILD_PERSON);
-
-        // Route 3: Build the Person object
-        from(ROUTE_BUILD_PERSON)
-                .routeId(ROUTE_ID_BUILD_PERSON)
-                .process(new BuildPersonProcessor())
-                .log("Building Person object: ${body}")
-                .to(ROUTE_PEOPLE_AGGREGATOR);
-
-        // Route 4: Aggregate all persons into one People object and marshal to XML
-        from(ROUTE_PEOPLE_AGGREGATOR)
-                .routeId(ROUTE_ID_AGGREGATE_PEOPLE)
-                .aggregate(constant(true), new PeopleAggregationStrategy())
-                .completionSize(exchangeProperty(PROPERTY_EXPECTED_PEOPLE_COUNT))
-                .log("Marshalling People with ${body.people.size()} persons: ${body}")
-                .marshal().jaxb()
-                .toD(outputUri);
+        RouteDefinition readAndSplit = (options.getIngestionMode() == IngestionMode.POLLING ? from(inputUri) : from(watchedInputUri()))
+                .routeId(ROUTE_ID_READ_AND_SPLIT_PEOPLE);
+        if (options.getFileConcurrency() > 1) {
+            // Hand each polled file over to a bounded pool, so several files are processed at once
+            readAndSplit.threads().executorService(createExecutor(FILE_WORKER_POOL, options.getFileConcurrency()));
+        }
+        OutputFormatSelector outputFormats = new OutputFormatSelector(options.getOutputFormat(), options.getOutputFormatsByFileName());
+        readAndSplit
+                .process(exchange -> exchange.setProperty(PROPERTY_FILE_ID, exchange.getExchangeId()))
+                .process(exchange -> exchange.setProperty(PROPERTY_OUTPUT_FORMAT,
+                        outputFormats.select(exchange.getIn().getHeader(Exchange.FILE_NAME_ONLY, String.class))))
+                .process(exchange -> metrics.addBytesRead(exchange.getIn().getHeader(Exchange.FILE_LENGTH, 0L, Long.class)));
+        if (delta) {
+            readAndSplit.process(new OpenDeltaTrackerProcessor(options.getDeltaDirectory()));
+        }
+        if (rejecting) {
+            readAndSplit.process(new OpenRejectedBlockWriterProcessor(options.getRejectDirectory()));
+        }
+        if (streamingOutput) {
+            readAndSplit.process(new OpenStreamingOutputProcessor(outputUri, options.getCheckpointInterval(),
+                    options.isCompressOutput(), options.getOutputCompressionLevel()));
+        }
+        if (parallel) {
+            readAndSplit.process(exchange -> exchange.setProperty(PROPERTY_PERSON_RESEQUENCER, new PersonResequencer(options.getResequencerCapacity())));
+        }
+        if (staged) {
+            readAndSplit.process(exchange -> exchange.setProperty(PROPERTY_STAGED_BLOCKS, new StagedBlocks()));
+        }
+        if (options.getValueDictionarySize() > 0) {
+            readAndSplit.process(exchange -> exchange.setProperty(PROPERTY_VALUE_DICTIONARY, new ValueDictionary(options.getValueDictionarySize())));
+        }
+        Expression personBlocks = mappedBytes
+                ? new MappedPersonBlockSplitter(options.getMappedWindowSize())
+                // Compressed input is inflated on its own thread, overlapping with splitting and parsing
+                : new PersonBlockSplitter(this::decompressionExecutor);
+        if (!mappedBytes) {
+            // Shut the decompression pool down together with the Camel context, if it was ever created
+            getContext().addService(new ServiceSupport() {
+                @Override
+                protected void doStop() {
+                    stopDecompressionExecutor();
+                }
+            });
+        }
+        // Counted by reference, as every split exchange gets a copy of the file exchange's properties
+        readAndSplit.process(exchange -> exchange.setProperty(PROPERTY_SPLIT_BLOCK_COUNT, new AtomicLong()));
+        Expression splitItems = batching ? new MicroBatchingSplitter(personBlocks, options.getSplitBatchSize()) : personBlocks;
+        SplitDefinition split = readAndSplit
+                .split(parallel ? new ResequencingWindowSplitter(splitItems) : splitItems)
+                .streaming().shareUnitOfWork().stopOnException();
+        if (rejecting) {
+            split.onPrepare(new NumberPersonBlockProcessor());
+        }
+        if (parallel && !staged) {
+            split.parallelProcessing().executorService(createExecutor(PERSON_BLOCK_WORKER_POOL, options.getParallelism()));
+        }
+        if (checkpointing) {
+            // Remember where the block ends in the input, for the checkpoint taken once its person is written
+            split.process(exchange -> exchange.setProperty(PROPERTY_BLOCK_END_OFFSET,
+                    exchange.getIn().getBody(PersonBlockBytes.class).endOffset()));
+        }
+        split.process(exchange -> exchange.getProperty(PROPERTY_SPLIT_BLOCK_COUNT, AtomicLong.class).incrementAndGet())
+                .process(new TraceBlockProcessor(tracer, BlockTracer.STAGE_SPLIT));
+        // An error handler would stop the split, so invalid blocks are caught around the parse and build steps instead
+        TryDefinition rejectOnError = rejecting && !staged ? split.doTry() : null;
+        ProcessorDefinition<?> blockSteps = rejectOnError != null ? rejectOnError : split;
+        if (staged) {
+            // Hand the block over to the parse stage, waiting while its queue is full
+            split.process(exchange -> stagedBlocks(exchange).submit())
+                    .to(parseStage);
+        } else if (fused) {
+            // Parse and build in one pass, without hopping through routes 2 and 3
+            blockSteps.process(perBlock(new FusedPersonBlockProcessor(metrics)))
+                    .process(new TraceBlockProcessor(tracer, BlockTracer.STAGE_BUILT))
+                    .to(personSink);
+        } else {
+            blockSteps.to(ROUTE_PERSON_STRING_TO_INPUT_LINES);
+        }
+        if (rejectOnError != null) {
+            // Set an invalid block aside and carry on with the next one, rather than failing the whole file
+            rejectOnError.doCatch(InputLineParserException.class, BuildPersonProcessorException.class)
+                    .process(new RejectPersonBlockProcessor(metrics))
+                    .process(new TraceBlockProcessor(tracer, BlockTracer.STAGE_REJECTED));
+            if (parallel) {
+                // The resequencer is waiting for this split index
+                rejectOnError.to(ROUTE_PEOPLE_RESEQUENCER);
+            }
+            rejectOnError.end();
+        }
+        split.end();
+        // Without a single block, no person would carry the split complete flag that completes the output
+        readAndSplit.process(this::failEmptyFile);
+        if (staged) {
+            // The stages run on their own threads, wait until they are done with this file's blocks
+            readAndSplit.process(exchange -> stagedBlocks(exchange).await());
+        }
+        if (options.getValueDictionarySize() > 0) {
+            readAndSplit.process(this::recordDictionary);
+        }
+        if (rejecting) {
+            // Without a single valid block there is no document to write, in either output mode
+            readAndSplit.process(this::failFullyRejectedFile);
+        }
+        if (rejecting && !streamingOutput) {
+            readAndSplit.process(this::completeAggregation);
+        }
+        if (delta) {
+            readAndSplit.process(new FinishDeltaTrackerProcessor());
+        }
+        if (streamingOutput) {
+            readAndSplit.process(new FinishStreamingOutputProcessor())
+                    .process(this::recordBytesWritten);
+        }
+
+        if (!fused) {
+            // Route 2: Convert each person block string -> InputLines -> Person
+            RouteDefinition parse = from(parseStage)
+                    .routeId(ROUTE_ID_PERSON_STRING_TO_INPUT_LINES);
+            // Route 3: Build the Person object
+            RouteDefinition build = from(buildStage)
+                    .routeId(ROUTE_ID_BUILD_PERSON);
+            if (staged) {
+                for (RouteDefinition stage : List.of(parse, build)) {
+                    if (rejecting) {
+                        stage.onException(InputLineParserException.class, BuildPersonProcessorException.class)
+                                .handled(true)
+                                .process(new RejectPersonBlockProcessor(metrics))
+                                .process(new TraceBlockProcessor(tracer, BlockTracer.STAGE_REJECTED))
+                                .to(ROUTE_DROP_STAGED_BLOCK)
+                                .end();
+                    }
+                    // The file is failed by its own route, once the other blocks in flight have drained
+                    stage.onException(Exception.class)
+                            .handled(true)
+                            .process(this::failStagedBlock)
+                            .to(ROUTE_DROP_STAGED_BLOCK)
+                            .end();
+                    stage.filter(this::isStagedFileFailed)
+                            .to(ROUTE_DROP_STAGED_BLOCK)
+                            .stop()
+                            .end();
+                }
+            } else if (rejecting) {
+                // Let invalid blocks propagate to the splitter, which rejects them
+                parse.errorHandler(noErrorHandler());
+                build.errorHandler(noErrorHandler());
+            }
+            parse.process(perBlock(mappedBytes ? new ByteInputLineParser(metrics) : new InputLineParser(metrics)))
+                    .process(new TraceBlockProcessor(tracer, BlockTracer.STAGE_PARSED))
+                    .to(buildStage);
+            build.process(perBlock(new BuildPersonProcessor(metrics)))
+                    .process(new TraceBlockProcessor(tracer, BlockTracer.STAGE_BUILT))
+                    .to(personSink);
+        }
+
+        if (parallel) {
+            // Route 3b: Restore input order of persons built in parallel
+            from(ROUTE_PEOPLE_RESEQUENCER)
+                    .routeId(ROUTE_ID_RESEQUENCE_PEOPLE)
+                    .process(new ResequencePersonProcessor(sinkStage));
+        }
+
+        if (staged) {
+            // Route 3c: Complete a block that is dropped before reaching the output
+            RouteDefinition drop = from(ROUTE_DROP_STAGED_BLOCK)
+                    .routeId(ROUTE_ID_DROP_STAGED_BLOCK)
+                    .process(this::completeStagedBlock);
+            if (parallel) {
+                // The resequencer is waiting for this split index
+                drop.setProperty(PROPERTY_BLOCK_REJECTED, constant(true))
+                        .to(ROUTE_PEOPLE_RESEQUENCER);
+            }
+        }
+
+        RouteDefinition peopleSink = from(sinkStage)
+                .routeId(streamingOutput ? ROUTE_ID_STREAM_PEOPLE : ROUTE_ID_AGGREGATE_PEOPLE);
+        if (staged) {
+            peopleSink.onException(Exception.class)
+                    .handled(true)
+                    .process(this::failStagedBlock)
+                    .process(this::completeStagedBlock)
+                    .end();
+            peopleSink.filter(this::isStagedFileFailed)
+                    .process(this::completeStagedBlock)
+                    .stop()
+                    .end();
+        }
+        if (delta) {
+            peopleSink.process(perBlock(new TrackPersonDeltaProcessor()));
+        }
+        if (streamingOutput) {
+            // Route 4: Append each Person to the already open output file
+            peopleSink.process(perBlock(new WritePersonProcessor()));
+            if (staged) {
+                peopleSink.process(this::completeStagedBlock);
+            }
+        } else {
+            // Route 4: Aggregate the persons of each file into one People object and marshal to XML
+            AggregateDefinition aggregate = peopleSink
+                    .aggregate(exchangeProperty(PROPERTY_FILE_ID),
+                            columnar ? new ColumnarPeopleAggregationStrategy() : new PeopleAggregationStrategy())
+                    .aggregateController(aggregateController)
+                    .completionPredicate(exchangeProperty(Exchange.SPLIT_COMPLETE).isEqualTo(true))
+                    .eagerCheckCompletion();
+            if (options.getFileConcurrency() > 1) {
+                // Completed groups are otherwise marshalled one at a time on a single aggregator thread
+                aggregate.executorService(createExecutor(AGGREGATOR_WORKER_POOL, options.getFileConcurrency()));
+            }
+            if (spillingRepository != null) {
+                aggregate.aggregationRepository(spillingRepository)
+                        .process(new ReleaseSpilledPeopleProcessor());
+            }
+            DataFormat dataFormat;
+            if (columnar) {
+                aggregate.log("Marshalling columnar People with ${body.size()} persons");
+                dataFormat = new ColumnarXmlDataFormat();
+            } else if (options.getXmlMarshaller() == XmlMarshaller.GENERATED) {
+                aggregate.log("Marshalling People with ${body.people.size()} persons");
+                dataFormat = new GeneratedXmlDataFormat();
+            } else {
+                aggregate.log("Marshalling People with ${body.people.size()} persons");
+                // A data format bound to People marshals straight to the output stream instead of through a String
+                dataFormat = new JaxbDataFormat(JAXBContext.newInstance(People.class));
+            }
+            // Files with another output format than XML bypass the XML marshaller
+            dataFormat = new PeopleOutputDataFormat(dataFormat);
+            if (options.isCompressOutput()) {
+                dataFormat = new GzipDataFormat(dataFormat, options.getOutputCompressionLevel());
+            }
+            aggregate.marshal(dataFormat)
+                    .toD(outputUri)
+                    .process(this::recordBytesWritten);
+            if (staged) {
+                // Every person continues past the aggregator, the last one after its group has been written
+                aggregate.end()
+                        .process(this::completeStagedBlock);
+            }
+        }
+    }
+
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    public BlockTracer getTracer() {
+        return tracer;
+    }
+
+    private void recordFailure(Exchange exchange) {
+        Throwable cause = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Throwable.class);
+        metrics.recordFailure(cause);
+        tracer.record(BlockTracer.STAGE_FAILED, exchange, cause);
+        tracer.dump("failed " + exchange.getIn().getHeader(Exchange.FILE_NAME, String.class));
+
+        // Persons after the failed block will never be released, stop holding them and the splitter back
+        PersonResequencer resequencer = exchange.getProperty(PROPERTY_PERSON_RESEQUENCER, PersonResequencer.class);
+        if (resequencer != null) {
+            resequencer.fail();
+        }
+
+        // The failed file's group can never complete, don't keep its persons around
+        String fileId = exchange.getProperty(PROPERTY_FILE_ID, String.class);
+        if (fileId != null && options.getOutputMode() == OutputMode.AGGREGATE) {
+            if (spillingRepository != null) {
+                spillingRepository.release(getContext(), fileId);
+            }
+            aggregateController.forceDiscardingOfGroup(fileId);
+        }
+    }
+
+    private void failEmptyFile(Exchange exchange) {
+        boolean resumedAtEnd = exchange.getProperty(PROPERTY_RESUME_OFFSET) != null;
+        if (exchange.getProperty(PROPERTY_SPLIT_BLOCK_COUNT, AtomicLong.class).get() == 0 && !resumedAtEnd) {
+            throw new InputLineParserException("No person blocks found in input file: "
+                    + exchange.getIn().getHeader(Exchange.FILE_NAME, String.class));
+        }
+    }
+
+    private void failFullyRejectedFile(Exchange exchange) {
+        long blocks = exchange.getProperty(PROPERTY_SPLIT_BLOCK_COUNT, AtomicLong.class).get();
+        if (exchange.getProperty(PROPERTY_REJECTED_BLOCK_WRITER, RejectedBlockWriter.class).getRejected() == blocks) {
+            throw new InputLineParserException("All " + blocks + " person blocks were rejected in input file: "
+                    + exchange.getIn().getHeader(Exchange.FILE_NAME, String.class));
+        }
+    }
+
+    // Completes the file's group unless its last person already did, i.e. when the last block was rejected
+    private void completeAggregation(Exchange exchange) {
+        aggregateController.forceCompletionOfGroup(exchange.getProperty(PROPERTY_FILE_ID, String.class));
+    }
+
+    private static StagedBlocks stagedBlocks(Exchange exchange) {
+        return exchange.getProperty(PROPERTY_STAGED_BLOCKS, StagedBlocks.class);
+    }
+
+    private void failStagedBlock(Exchange exchange) {
+        stagedBlocks(exchange).fail(exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Throwable.class));
+    }
+
+    private void completeStagedBlock(Exchange exchange) {
+        stagedBlocks(exchange).complete();
+    }
+
+    private boolean isStagedFileFailed(Exchange exchange) {
+        return stagedBlocks(exchange).isFailed();
+    }
+
+    private void recordDictionary(Exchange exchange) {
+        ValueDictionary dictionary = exchange.getProperty(PROPERTY_VALUE_DICTIONARY, ValueDictionary.class);
+        metrics.recordDictionary(dictionary);
+        log.info("Value dictionary for {}: {} lookups, hit rate {}%", exchange.getIn().getHeader(Exchange.FILE_NAME),
+                dictionary.getLookups(), String.format("%.1f", dictionary.getHitRate() * 100));
+    }
+
+    private void recordBytesWritten(Exchange exchange) throws IOException {
+        StreamingPeopleOutput streamingOutput = exchange.getProperty(PROPERTY_STREAMING_OUTPUT, StreamingPeopleOutput.class);
+        String produced = exchange.getIn().getHeader(Exchange.FILE_NAME_PRODUCED, String.class);
+        Path output = streamingOutput != null ? streamingOutput.getTarget() : produced != null ? Path.of(produced) : null;
+        if (output != null && Files.exists(output)) {
+            metrics.addBytesWritten(Files.size(output));
+        }
+    }
+
+    // Applies a step written for a single block or person to each item of a micro-batch
+    private Processor perBlock(Processor processor) {
+        return options.getSplitBatchSize() > 1 ? new MicroBatchProcessor(processor) : processor;
+    }
+
+    // Polls the input folder on filesystem events, and only picks up files that are completely written
+    private String watchedInputUri() {
+        getContext().getRegistry().bind(BEAN_INPUT_WATCH_SCHEDULER, new WatchServicePollScheduler());
+        String completion = options.getIngestionMode() == IngestionMode.WATCH_DONE_MARKER
+                ? "doneFileName=${file:name}" + DONE_MARKER_SUFFIX
+                : "readLock=changed&readLockCheckInterval=" + options.getInputQuietPeriod().toMillis();
+        return inputUri + (inputUri.contains("?") ? "&" : "?") + "scheduler=#" + BEAN_INPUT_WATCH_SCHEDULER + "&" + completion;
+    }
+
+    // A bounded queue that blocks its producer when full, rather than failing or growing
+    private String stageUri(String stage, int consumers) {
+        return stage + "?size=" + options.getStageQueueCapacity() + "&blockWhenFull=true&concurrentConsumers=" + consumers;
+    }
+
+    private ExecutorService createExecutor(String name, int size) throws Exception {
+        ExecutorService executor = options.getExecutorKind().newExecutor(name, size);
+        // Shut the pool down together with the Camel context
+        getContext().addService(new ServiceSupport() {
+            @Override
+            protected void doStop() {
+                executor.shutdownNow();
+            }
+        });
+        return executor;
+    }
+
+    /**
+     * Returns the pool compressed input files are inflated on, creating it on first use. Its threads are started per
+     * compressed file and stop again when idle. Once all of them are busy, further read-ahead tasks are rejected rather
+     * than run on the splitting thread, which would then wait for its own read-ahead forever.
+     */
+    private synchronized ExecutorService decompressionExecutor() {
+        if (decompressionExecutor == null) {
+            decompressionExecutor = new ThreadPoolExecutor(0, options.getDecompressionThreads(), 60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), options.getExecutorKind().threadFactory(DECOMPRESSION_WORKER_POOL),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        return decompressionExecutor;
+    }
+
+    private synchronized void stopDecompressionExecutor() {
+        if (decompressionExecutor != null) {
+            decompressionExecutor.shutdownNow();
+            decompressionExecutor = null;
+        }
     }
 }
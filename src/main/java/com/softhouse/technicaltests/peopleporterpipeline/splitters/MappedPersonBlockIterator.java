@@ -0,0 +1,144 @@
+package com.softhouse.technicaltests.peopleporterpipeline.splitters;
+
+import com.softhouse.technicaltests.peopleporterpipeline.common.LineType;
+import com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} that splits a memory-mapped file into person blocks without copying any bytes.
+ *
+ * <p>The file is mapped in read-only windows of {@code windowSize} bytes. Blocks are found by scanning line starts
+ * for {@code P|}, the same rule as {@link com.softhouse.technicaltests.peopleporterpipeline.processors.SplitPersonBlocksProcessor#isPersonLine(String)},
+ * and each block is returned as a {@link PersonBlockBytes} slice of the current window. When a block runs past the end
+ * of the window, a new window is mapped starting at that block (doubling in size if a single block does not fit),
+ * so files larger than 2 GB are handled and only blocks up to 2 GB are a limit.</p>
+ *
+ * <p>Iteration may start at any block boundary of the file, e.g. the offset recorded by a checkpoint, and every
+ * block carries its absolute offset in the file.</p>
+ *
+ * <p>Slices keep their window mapped until they are garbage collected, so memory use is bounded by the windows
+ * still referenced by in-flight blocks rather than by the file size.</p>
+ */
+public class MappedPersonBlockIterator implements Iterator<PersonBlockBytes>, Closeable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final byte PERSON = (byte) LineType.PERSON.charAt(0);
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    public MappedPersonBlockIterator(Path file, Charset charset, int windowSize) throws IOException {
+        this(file, charset, windowSize, 0);
+    }
+
+    public MappedPersonBlockIterator(Path file, Charset charset, int windowSize, long startOffset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.charset = charset;
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        if (startOffset < 0 || startOffset > fileSize) {
+            channel.close();
+            throw new IllegalArgumentException("Start offset " + startOffset + " is outside " + file + " (" + fileSize + " bytes)");
+        }
+        this.position = startOffset;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < fileSize;
+    }
+
+    @Override
+    public PersonBlockBytes next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more person blocks");
+        }
+
+        long blockStart = position;
+        // The first line always belongs to the block, even if it is not a P| line
+        long end = endOfLine(blockStart, blockStart);
+        while (end < fileSize && !isPersonLineAt(blockStart, end)) {
+            end = endOfLine(blockStart, end);
+        }
+        position = end;
+
+        ensureMapped(blockStart, end - 1);
+        int offset = (int) (blockStart - windowStart);
+        return new PersonBlockBytes(window.slice(offset, (int) (end - blockStart)), charset, blockStart);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    // Returns the absolute offset of the first byte after the line (including its terminator) starting at 'from'
+    private long endOfLine(long blockStart, long from) {
+        long i = from;
+        while (i < fileSize) {
+            byte b = byteAt(blockStart, i++);
+            if (b == '\n') {
+                return i;
+            }
+            if (b == '\r') {
+                if (i < fileSize && byteAt(blockStart, i) == '\n') {
+                    i++;
+                }
+                return i;
+            }
+        }
+        return i;
+    }
+
+    private boolean isPersonLineAt(long blockStart, long lineStart) {
+        return lineStart + 1 < fileSize
+                && byteAt(blockStart, lineStart) == PERSON
+                && byteAt(blockStart, lineStart + 1) == '|';
+    }
+
+    private byte byteAt(long blockStart, long absolute) {
+        ensureMapped(blockStart, absolute);
+        return window.get((int) (absolute - windowStart));
+    }
+
+    // Makes sure the window covers [blockStart, absolute], remapping from blockStart if necessary
+    private void ensureMapped(long blockStart, long absolute) {
+        if (window != null && blockStart >= windowStart && absolute < windowStart + window.limit()) {
+            return;
+        }
+
+        long size = windowSize;
+        while (size <= absolute - blockStart) {
+            size *= 2;
+        }
+        size = Math.min(size, fileSize - blockStart);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Person block starting at byte " + blockStart + " exceeds 2 GB");
+        }
+
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, blockStart, size);
+            windowStart = blockStart;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map input file at offset " + blockStart, e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.softhouse.technicaltests.peopleporterpipeline.splitters;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.InvalidPayloadException;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.support.ExchangeHelper;
+import org.apache.camel.support.ExpressionAdapter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_RESUME_OFFSET;
+
+/**
+ * A Camel {@link org.apache.camel.Expression} that splits the input file into zero-copy person blocks
+ * using a {@link MappedPersonBlockIterator}.
+ *
+ * <p>Unlike {@link PersonBlockSplitter} the body must be resolvable to a {@link File} (which is the case for the
+ * file component), since the file is memory-mapped rather than read as a stream. Each split message body is a
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes}, to be parsed by
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.processors.ByteInputLineParser}.</p>
+ *
+ * <p>Compressed ({@code .gz}) input files are rejected, as they cannot be mapped.</p>
+ *
+ * <p>If the exchange carries a {@link com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants#PROPERTY_RESUME_OFFSET}
+ * property, splitting starts at that byte offset instead of at the beginning of the file.</p>
+ */
+public class MappedPersonBlockSplitter extends ExpressionAdapter {
+
+    private final int windowSize;
+
+    public MappedPersonBlockSplitter() {
+        this(MappedPersonBlockIterator.DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedPersonBlockSplitter(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public Object evaluate(Exchange exchange) {
+        if (PersonBlockSplitter.isGzip(exchange)) {
+            throw new IllegalArgumentException("Compressed input cannot be memory-mapped, use parser kind STRING: "
+                    + exchange.getIn().getHeader(Exchange.FILE_NAME));
+        }
+        try {
+            File file = exchange.getIn().getMandatoryBody(File.class);
+            Charset charset = Charset.forName(ExchangeHelper.getCharsetName(exchange));
+            long startOffset = exchange.getProperty(PROPERTY_RESUME_OFFSET, 0L, Long.class);
+            return new MappedPersonBlockIterator(file.toPath(), charset, windowSize, startOffset);
+        } catch (InvalidPayloadException | IOException e) {
+            throw new RuntimeCamelException("Unable to memory-map input file", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "mappedPersonBlocks(body)";
+    }
+}
@@ -0,0 +1,78 @@
+package com.softhouse.technicaltests.peopleporterpipeline.splitters;
+
+import com.softhouse.technicaltests.peopleporterpipeline.common.MicroBatch;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.support.ExpressionAdapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A Camel {@link Expression} that groups the person blocks returned by another splitter expression into
+ * {@link MicroBatch}es of up to {@code batchSize} consecutive blocks, so that {@code split(...).streaming()} emits one
+ * exchange per batch rather than one per block.
+ *
+ * <p>Blocks are still pulled from the wrapped iterator one at a time, so at most one batch is held in memory per
+ * exchange in flight. The last batch of a file holds the remaining blocks. Closing the batching iterator closes the
+ * wrapped one, so splitting can still be stopped early.</p>
+ */
+public class MicroBatchingSplitter extends ExpressionAdapter {
+
+    private final Expression blocks;
+    private final int batchSize;
+
+    public MicroBatchingSplitter(Expression blocks, int batchSize) {
+        this.blocks = blocks;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Object evaluate(Exchange exchange) {
+        return new BatchIterator((Iterator<?>) blocks.evaluate(exchange, Object.class), batchSize);
+    }
+
+    @Override
+    public String toString() {
+        return "microBatches(" + blocks + ", " + batchSize + ")";
+    }
+
+    private static final class BatchIterator implements Iterator<MicroBatch>, Closeable {
+
+        private final Iterator<?> blocks;
+        private final int batchSize;
+
+        BatchIterator(Iterator<?> blocks, int batchSize) {
+            this.blocks = blocks;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return blocks.hasNext();
+        }
+
+        @Override
+        public MicroBatch next() {
+            if (!blocks.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Object> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && blocks.hasNext()) {
+                batch.add(blocks.next());
+            }
+            return new MicroBatch(batch);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (blocks instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
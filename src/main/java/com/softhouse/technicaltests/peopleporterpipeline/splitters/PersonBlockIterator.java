@@ -0,0 +1,99 @@
+package com.softhouse.technicaltests.peopleporterpipeline.splitters;
+
+import com.softhouse.technicaltests.peopleporterpipeline.processors.SplitPersonBlocksProcessor;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} that reads person blocks incrementally from a {@link BufferedReader}.
+ *
+ * <p>A block starts with a {@code P|} line (see {@link SplitPersonBlocksProcessor#isPersonLine(String)})
+ * and contains every following line up to, but not including, the next {@code P|} line. Lines that
+ * precede the first {@code P|} line form a block of their own, exactly as in
+ * {@link SplitPersonBlocksProcessor}, so that downstream validation rejects them the same way.</p>
+ *
+ * <p>Only the block currently being assembled and one line of look-ahead are kept in memory, which means
+ * memory usage is bounded by the largest single block rather than by the size of the file. Each block is
+ * returned as a multi-line string joined with {@link System#lineSeparator()}.</p>
+ *
+ * <p>The iterator is {@link Closeable}; it closes the underlying reader once the input is exhausted, and
+ * Camel's streaming splitter closes it explicitly if splitting is stopped early.</p>
+ */
+public class PersonBlockIterator implements Iterator<String>, Closeable {
+
+    private final BufferedReader reader;
+    private final StringBuilder block = new StringBuilder();
+
+    private String lookAhead;
+    private String next;
+    private boolean closed;
+
+    public PersonBlockIterator(BufferedReader reader) {
+        this.reader = reader;
+        this.lookAhead = readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readBlock();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more person blocks");
+        }
+        String answer = next;
+        next = null;
+        return answer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            lookAhead = null;
+            reader.close();
+        }
+    }
+
+    private String readBlock() {
+        if (lookAhead == null) {
+            return null;
+        }
+
+        block.setLength(0);
+        block.append(lookAhead);
+
+        String line;
+        while ((line = readLine()) != null && !SplitPersonBlocksProcessor.isPersonLine(line)) {
+            block.append(System.lineSeparator()).append(line);
+        }
+        lookAhead = line;
+
+        return block.toString();
+    }
+
+    private String readLine() {
+        if (closed) {
+            return null;
+        }
+        try {
+            String line = reader.readLine();
+            if (line == null) {
+                close();
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read person block from input", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.softhouse.technicaltests.peopleporterpipeline.splitters;
+
+import com.softhouse.technicaltests.peopleporterpipeline.input.ReadAheadInputStream;
+import org.apache.camel.Exchange;
+import org.apache.camel.InvalidPayloadException;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.support.ExchangeHelper;
+import org.apache.camel.support.ExpressionAdapter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.GZIP_SUFFIX;
+
+/**
+ * A Camel {@link org.apache.camel.Expression} used with {@code split(...).streaming()} to split an input file
+ * into person blocks without loading the whole file into memory.
+ *
+ * <p>The message body is read as an {@link InputStream} (for the file component this opens the file directly)
+ * and wrapped in a {@link PersonBlockIterator}, which emits each {@code P|}-delimited block downstream as soon
+ * as it is complete. The charset is taken from the exchange, falling back to the JVM default, which matches
+ * the previous {@code convertBodyTo(String.class)} behaviour.</p>
+ *
+ * <p>Input files whose name ends with {@code .gz} are decompressed as they are read, without a temporary file. When
+ * the splitter is given an executor, inflating runs there in a {@link ReadAheadInputStream}, overlapping with the
+ * splitting and parsing of the already decompressed blocks. The executor is only asked for once a compressed file is
+ * split. If it rejects the read-ahead task, the file is inflated inline instead. The executor must therefore reject
+ * tasks rather than run them on the caller, where the read-ahead task would wait for a consumer that never comes.</p>
+ *
+ * <p>Because the total number of blocks is not known up front, aggregation completion is driven by the
+ * splitter's {@link Exchange#SPLIT_COMPLETE} property instead of a pre-computed person count.</p>
+ *
+ * @see PersonBlockIterator
+ * @see com.softhouse.technicaltests.peopleporterpipeline.processors.SplitPersonBlocksProcessor
+ */
+public class PersonBlockSplitter extends ExpressionAdapter {
+
+    private static final int INFLATE_BUFFER_SIZE = 64 * 1024;
+
+    private final Supplier<ExecutorService> decompressionExecutor;
+
+    public PersonBlockSplitter() {
+        this(null);
+    }
+
+    /**
+     * @param decompressionExecutor supplies the executor that compressed input is inflated on, or {@code null} to
+     *                              inflate inline
+     */
+    public PersonBlockSplitter(Supplier<ExecutorService> decompressionExecutor) {
+        this.decompressionExecutor = decompressionExecutor;
+    }
+
+    @Override
+    public Object evaluate(Exchange exchange) {
+        try {
+            InputStream in = exchange.getIn().getMandatoryBody(InputStream.class);
+            if (isGzip(exchange)) {
+                in = decompress(in);
+            }
+            Charset charset = Charset.forName(ExchangeHelper.getCharsetName(exchange));
+            return new PersonBlockIterator(new BufferedReader(new InputStreamReader(in, charset)));
+        } catch (InvalidPayloadException e) {
+            throw new RuntimeCamelException("Unable to read input file as a stream", e);
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Unable to decompress input file", e);
+        }
+    }
+
+    static boolean isGzip(Exchange exchange) {
+        String fileName = exchange.getIn().getHeader(Exchange.FILE_NAME, String.class);
+        return fileName != null && fileName.endsWith(GZIP_SUFFIX);
+    }
+
+    private InputStream decompress(InputStream in) throws IOException {
+        InputStream inflating;
+        try {
+            inflating = new GZIPInputStream(in, INFLATE_BUFFER_SIZE);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        if (decompressionExecutor == null) {
+            return inflating;
+        }
+        try {
+            return new ReadAheadInputStream(inflating, decompressionExecutor.get());
+        } catch (RejectedExecutionException e) {
+            // Every decompression thread is busy with another file
+            return inflating;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "personBlocks(body)";
+    }
+}
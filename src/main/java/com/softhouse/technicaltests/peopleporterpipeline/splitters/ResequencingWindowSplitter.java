@@ -0,0 +1,84 @@
+package com.softhouse.technicaltests.peopleporterpipeline.splitters;
+
+import com.softhouse.technicaltests.peopleporterpipeline.aggregators.PersonResequencer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.support.ExpressionAdapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.PROPERTY_PERSON_RESEQUENCER;
+
+/**
+ * A Camel {@link Expression} that hands out the items of another splitter expression no faster than the file's
+ * {@link PersonResequencer} releases them, so that parallel processing never holds more than the resequencer's capacity
+ * of persons back.
+ *
+ * <p>Before handing out the item with split index {@code n}, the iterator waits in
+ * {@link PersonResequencer#awaitCapacity(int)}, which keeps the splitting thread (and with it the reading of the file)
+ * waiting while a slow earlier block is outstanding. If the file fails meanwhile, the iterator throws, which stops the
+ * split. Closing the iterator closes the wrapped one.</p>
+ */
+public class ResequencingWindowSplitter extends ExpressionAdapter {
+
+    private final Expression items;
+
+    public ResequencingWindowSplitter(Expression items) {
+        this.items = items;
+    }
+
+    @Override
+    public Object evaluate(Exchange exchange) {
+        PersonResequencer resequencer = exchange.getProperty(PROPERTY_PERSON_RESEQUENCER, PersonResequencer.class);
+        if (resequencer == null) {
+            throw new IllegalStateException("No resequencer available for exchange. Property missing: " + PROPERTY_PERSON_RESEQUENCER);
+        }
+        return new WindowIterator((Iterator<?>) items.evaluate(exchange, Object.class), resequencer);
+    }
+
+    @Override
+    public String toString() {
+        return "resequencingWindow(" + items + ")";
+    }
+
+    private static final class WindowIterator implements Iterator<Object>, Closeable {
+
+        private final Iterator<?> items;
+        private final PersonResequencer resequencer;
+        private int index;
+
+        WindowIterator(Iterator<?> items, PersonResequencer resequencer) {
+            this.items = items;
+            this.resequencer = resequencer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return items.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            try {
+                if (!resequencer.awaitCapacity(index)) {
+                    throw new RuntimeCamelException("Stopped splitting at person block #" + index + ", an earlier block failed");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeCamelException("Interrupted while waiting to split person block #" + index, e);
+            }
+            index++;
+            return items.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (items instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
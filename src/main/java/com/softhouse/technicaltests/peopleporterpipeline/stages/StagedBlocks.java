@@ -0,0 +1,68 @@
+package com.softhouse.technicaltests.peopleporterpipeline.stages;
+
+import org.apache.camel.RuntimeCamelException;
+
+/**
+ * Keeps count of the person blocks of one input file that are queued or being processed in the stages of the
+ * {@link com.softhouse.technicaltests.peopleporterpipeline.config.PipelineTopology#STAGED} topology.
+ * <p>
+ * The splitter calls {@link #submit()} for every block it hands to the first stage, and each block is
+ * {@link #complete() completed} exactly once: when the last stage has written or aggregated it, or when an earlier
+ * stage drops it. Since the stages run on their own threads, the file's route calls {@link #await()} after splitting
+ * and only continues once every block has left the pipeline.
+ * <p>
+ * A stage that fails a block records the cause with {@link #fail(Throwable)}. From then on the remaining blocks of the
+ * file are dropped by every stage, and the cause is rethrown to the file's route by {@link #submit()} or
+ * {@link #await()}, in both cases only after the blocks still in flight have drained, so nothing of a failed file is
+ * processed after it has been failed.
+ */
+public class StagedBlocks {
+
+    private long inFlight;
+    private volatile Throwable failure;
+
+    /**
+     * Counts a block handed to the first stage, or rethrows the failure of an earlier block once the pipeline has
+     * drained.
+     */
+    public synchronized void submit() throws InterruptedException {
+        if (failure != null) {
+            await();
+        }
+        inFlight++;
+    }
+
+    public synchronized void complete() {
+        if (--inFlight == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Records why a block failed; the first cause wins. The block must still be completed.
+     */
+    public synchronized void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Waits until every submitted block has been completed, then rethrows the failure of any of them.
+     */
+    public synchronized void await() throws InterruptedException {
+        while (inFlight > 0) {
+            wait();
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw new RuntimeCamelException(failure);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.softhouse.technicaltests.peopleporterpipeline.tracing;
+
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory flight recorder of the most recent person block stage transitions.
+ * <p>
+ * Every transition (block split, parsed, built, failed) is written into a preallocated ring buffer holding the last
+ * {@code capacity} transitions. An entry only stores references (stage, block index, file name, thread name and the
+ * exchange body), so recording costs a counter increment and a few field writes; nothing is formatted until the
+ * buffer is dumped. The buffer is dumped to the log by {@link #dump(String)}, which the route calls whenever a file
+ * fails, so the blocks leading up to a failure can be inspected after the fact.
+ * <p>
+ * In addition, a fraction {@code sampleRate} of the blocks is logged at {@code INFO} as it passes each stage. Sampling is
+ * decided on the split index, so a sampled block is logged at every stage. A capacity of zero disables tracing.
+ */
+public class BlockTracer {
+
+    public static final String STAGE_SPLIT = "split";
+    public static final String STAGE_PARSED = "parsed";
+    public static final String STAGE_BUILT = "built";
+    public static final String STAGE_FAILED = "failed";
+    public static final String STAGE_REJECTED = "rejected";
+
+    private static final Logger log = LoggerFactory.getLogger(BlockTracer.class);
+
+    private final Entry[] entries;
+    private final int mask;
+    private final long sampleThreshold;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param capacity   number of transitions kept, rounded up to a power of two; zero disables tracing
+     * @param sampleRate fraction of blocks ({@code 0.0}–{@code 1.0}) logged as they pass each stage
+     */
+    public BlockTracer(int capacity, double sampleRate) {
+        if (capacity < 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Trace buffer capacity must be between 0 and 2^30, got " + capacity);
+        }
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("Trace sample rate must be between 0.0 and 1.0, got " + sampleRate);
+        }
+        int size = capacity <= 1 ? capacity : Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new Entry[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new Entry();
+        }
+        this.mask = size - 1;
+        this.sampleThreshold = (long) (sampleRate * (1L << 53));
+    }
+
+    public void record(String stage, Exchange exchange) {
+        record(stage, exchange, exchange.getIn().getBody());
+    }
+
+    /**
+     * Records a transition of the block carried by {@code exchange}, with {@code detail} as the traced payload.
+     */
+    public void record(String stage, Exchange exchange, Object detail) {
+        if (entries.length == 0) {
+            return;
+        }
+        int blockIndex = exchange.getProperty(Exchange.SPLIT_INDEX, -1, Integer.class);
+        String fileName = exchange.getIn().getHeader(Exchange.FILE_NAME, String.class);
+
+        long seq = sequence.getAndIncrement();
+        Entry entry = entries[(int) (seq & mask)];
+        synchronized (entry) {
+            entry.sequence = seq;
+            entry.timestamp = System.currentTimeMillis();
+            entry.thread = Thread.currentThread().getName();
+            entry.fileName = fileName;
+            entry.blockIndex = blockIndex;
+            entry.stage = stage;
+            entry.detail = detail;
+        }
+
+        if (isSampled(blockIndex) && log.isInfoEnabled()) {
+            log.info("Block {} of {} {}: {}", blockIndex, fileName, stage, detail);
+        }
+    }
+
+    /**
+     * Logs every transition currently held in the buffer, oldest first.
+     */
+    public void dump(String reason) {
+        if (entries.length == 0 || !log.isWarnEnabled()) {
+            return;
+        }
+        List<String> transitions = snapshot();
+        StringBuilder out = new StringBuilder();
+        out.append("Trace of the last ").append(transitions.size()).append(" block transitions (").append(reason).append("):");
+        for (String transition : transitions) {
+            out.append(System.lineSeparator()).append("  ").append(transition);
+        }
+        log.warn(out.toString());
+    }
+
+    /**
+     * Formats every transition currently held in the buffer, oldest first.
+     */
+    public List<String> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - entries.length);
+
+        List<String> transitions = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            Entry entry = entries[(int) (seq & mask)];
+            synchronized (entry) {
+                // Skip slots already overwritten by a newer transition, or not written yet
+                if (entry.sequence == seq) {
+                    transitions.add("#%d %s [%s] %s block %d %s: %s".formatted(seq, Instant.ofEpochMilli(entry.timestamp),
+                            entry.thread, entry.fileName, entry.blockIndex, entry.stage, entry.detail));
+                }
+            }
+        }
+        return transitions;
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    private boolean isSampled(int blockIndex) {
+        if (sampleThreshold == 0) {
+            return false;
+        }
+        // SplitMix64 finalizer, so sampled blocks are spread evenly over the file
+        long z = blockIndex * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) < sampleThreshold;
+    }
+
+    private static final class Entry {
+        private long sequence = -1;
+        private long timestamp;
+        private String thread;
+        private String fileName;
+        private int blockIndex;
+        private String stage;
+        private Object detail;
+    }
+}
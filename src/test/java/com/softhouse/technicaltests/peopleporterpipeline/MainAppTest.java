@@ -0,0 +1,72 @@
+package com.softhouse.technicaltests.peopleporterpipeline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.apache.camel.test.junit5.TestSupport.deleteDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MainAppTest {
+
+    private static final String TEST_INPUT_FILENAME = "test-input.txt";
+    private static final String EXPECTED_OUTPUT_FILENAME = "expected-test-output.xml";
+
+    private static final String WORK_DIR = "target/test-cli";
+
+    @BeforeEach
+    void setup() {
+        deleteDirectory(WORK_DIR);
+        createDirectory(WORK_DIR);
+    }
+
+    @Test
+    void testConvertsOneFileLikeTheStreamingRoute() throws Exception {
+        Path input = Path.of(Objects.requireNonNull(getClass().getClassLoader().getResource(TEST_INPUT_FILENAME)).toURI());
+        Path output = Path.of(WORK_DIR, "people.xml");
+
+        assertEquals(MainApp.EXIT_OK, MainApp.convert(new String[]{input.toString(), output.toString()}));
+
+        // The expected file is JAXB output without the trailing newline
+        String expectedXml = loadResource(EXPECTED_OUTPUT_FILENAME) + "\n";
+        assertEquals(expectedXml, Files.readString(output, StandardCharsets.UTF_8), "Unexpected converted XML");
+    }
+
+    @Test
+    void testFailedConversionLeavesNoOutput() throws Exception {
+        Path input = Files.writeString(Path.of(WORK_DIR, "invalid.txt"), "P|Joe|Biden\nX|Unknown\n");
+        Path output = Path.of(WORK_DIR, "invalid.xml");
+
+        assertEquals(MainApp.EXIT_FAILED, MainApp.convert(new String[]{input.toString(), output.toString()}));
+        assertFalse(Files.exists(output), "The partial output was not deleted");
+    }
+
+    @Test
+    void testInvalidArgumentsAreUsageErrors() {
+        assertEquals(MainApp.EXIT_USAGE, MainApp.convert(new String[]{"only-input.txt"}));
+        assertEquals(MainApp.EXIT_USAGE, MainApp.convert(new String[]{WORK_DIR + "/missing.txt", WORK_DIR + "/out.xml"}));
+
+        Path input = Path.of(Objects.requireNonNull(getClass().getClassLoader().getResource(TEST_INPUT_FILENAME)).getPath());
+        assertEquals(MainApp.EXIT_USAGE, MainApp.convert(new String[]{"--shards", input.toString(), WORK_DIR + "/out.xml"}));
+        assertEquals(MainApp.EXIT_USAGE, MainApp.convert(new String[]{"--shards", "0", input.toString(), WORK_DIR + "/out.xml"}));
+        assertEquals(MainApp.EXIT_USAGE, MainApp.convert(new String[]{"--range", "0", "x", input.toString(), WORK_DIR + "/out.xml"}));
+    }
+
+    private String loadResource(String resourceName) throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourceName)) {
+            if (is == null) {
+                throw new FileNotFoundException("Resource not found: " + resourceName);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.softhouse.technicaltests.peopleporterpipeline.batch;
+
+import com.softhouse.technicaltests.peopleporterpipeline.batch.FileShards.Shard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.apache.camel.test.junit5.TestSupport.deleteDirectory;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedFileConverterTest {
+
+    private static final String TEST_INPUT_FILENAME = "test-input.txt";
+
+    private static final String WORK_DIR = "target/test-shards";
+
+    // The test input holds two persons; repeating it gives every shard several of them
+    private static final int INPUT_REPETITIONS = 50;
+
+    private Path input;
+
+    @BeforeEach
+    void setup() throws IOException {
+        deleteDirectory(WORK_DIR);
+        createDirectory(WORK_DIR);
+        input = Files.writeString(Path.of(WORK_DIR, "people.txt"),
+                loadResource(TEST_INPUT_FILENAME).strip().concat("\n").repeat(INPUT_REPETITIONS));
+    }
+
+    @Test
+    void testShardsStartAtPersonLinesAndCoverTheFile() throws Exception {
+        List<Shard> shards = FileShards.plan(input, 7);
+        byte[] bytes = Files.readAllBytes(input);
+
+        assertEquals(7, shards.size());
+        assertEquals(0, shards.get(0).start());
+        assertEquals(bytes.length, shards.get(shards.size() - 1).end());
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            assertEquals(i, shard.index());
+            assertTrue(shard.length() > 0, "Empty shard " + shard);
+            assertEquals("P|", new String(bytes, (int) shard.start(), 2, StandardCharsets.UTF_8), "Shard " + shard);
+            if (i > 0) {
+                assertEquals(shards.get(i - 1).end(), shard.start(), "Shards are not adjacent");
+            }
+        }
+    }
+
+    @Test
+    void testFewerShardsThanRequestedWhenBlocksRunOut() throws Exception {
+        Path twoPersons = Files.writeString(Path.of(WORK_DIR, "two.txt"), loadResource(TEST_INPUT_FILENAME));
+
+        assertEquals(2, FileShards.plan(twoPersons, 16).size());
+    }
+
+    @Test
+    void testShardedConversionMatchesSingleConversion() throws Exception {
+        for (String outputName : List.of("people.xml", "people.jsonl", "people.bin")) {
+            Path expected = Path.of(WORK_DIR, "expected-" + outputName);
+            Path output = Path.of(WORK_DIR, outputName);
+            new PeopleFileConverter().convert(input, expected);
+
+            new ShardedFileConverter(3, 1, Duration.ZERO).convert(input, output);
+
+            assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(output), "Unexpected " + outputName);
+        }
+        assertNoShardFilesLeft();
+    }
+
+    @Test
+    void testFailedShardIsRetried() throws Exception {
+        Path expected = Path.of(WORK_DIR, "expected.xml");
+        Path output = Path.of(WORK_DIR, "people.xml");
+        new PeopleFileConverter().convert(input, expected);
+        List<Integer> failedShards = new ArrayList<>();
+
+        new ShardedFileConverter(3, 2, Duration.ofMinutes(1)) {
+            @Override
+            protected List<String> workerCommand(Path input, Shard shard, Path shardFile, int attempt) {
+                if (shard.index() == 1 && attempt == 1) {
+                    synchronized (failedShards) {
+                        failedShards.add(shard.index());
+                    }
+                    return super.workerCommand(Path.of(WORK_DIR, "missing.txt"), shard, shardFile, attempt);
+                }
+                return super.workerCommand(input, shard, shardFile, attempt);
+            }
+        }.convert(input, output);
+
+        assertEquals(List.of(1), failedShards);
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(output), "Unexpected merged output");
+        assertNoShardFilesLeft();
+    }
+
+    @Test
+    void testShardFailingEveryAttemptFailsTheConversion() throws Exception {
+        Path output = Path.of(WORK_DIR, "people.xml");
+        ShardedFileConverter converter = new ShardedFileConverter(3, 2, Duration.ofMinutes(1)) {
+            @Override
+            protected List<String> workerCommand(Path input, Shard shard, Path shardFile, int attempt) {
+                Path workerInput = shard.index() == 2 ? Path.of(WORK_DIR, "missing.txt") : input;
+                return super.workerCommand(workerInput, shard, shardFile, attempt);
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> converter.convert(input, output));
+
+        assertTrue(e.getMessage().contains("failed after 2 attempts"), e.getMessage());
+        assertFalse(Files.exists(output), "Output written despite a failed shard");
+        assertNoShardFilesLeft();
+    }
+
+    private void assertNoShardFilesLeft() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(WORK_DIR))) {
+            assertEquals(List.of(), files.filter(file -> file.getFileName().toString().startsWith(".shard-")).toList());
+        }
+    }
+
+    private String loadResource(String resourceName) throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourceName)) {
+            if (is == null) {
+                throw new FileNotFoundException("Resource not found: " + resourceName);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.softhouse.technicaltests.peopleporterpipeline.output;
+
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeopleXmlWriterTest {
+
+    @Test
+    void testEmptyDocumentIsIdenticalToJaxbOutput() throws Exception {
+        StringWriter actual = new StringWriter();
+        PeopleXmlWriter writer = new PeopleXmlWriter(actual);
+        writer.writeStart();
+        writer.writeEnd();
+
+        assertEquals(jaxb(new People()), actual.toString(), "An empty document is not byte-compatible with the JAXB output");
+    }
+
+    @Test
+    void testResumedDocumentIsClosed() throws Exception {
+        Person person = new Person();
+        person.setFirstname("Resumed");
+        StringWriter actual = new StringWriter();
+        // A writer appending to a checkpointed document does not write the start again
+        PeopleXmlWriter writer = new PeopleXmlWriter(actual);
+        writer.writePerson(person);
+        writer.writeEnd();
+
+        assertEquals("""
+                    <person>
+                        <firstname>Resumed</firstname>
+                    </person>
+                </people>
+                """, actual.toString(), "The resumed document was not closed");
+    }
+
+    private static String jaxb(People people) throws Exception {
+        Marshaller marshaller = JAXBContext.newInstance(People.class).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+        StringWriter xml = new StringWriter();
+        marshaller.marshal(people, xml);
+        return xml.toString();
+    }
+}
@@ -0,0 +1,224 @@
+package com.softhouse.technicaltests.peopleporterpipeline.processors;
+
+import com.softhouse.technicaltests.peopleporterpipeline.input.PersonBlockBytes;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.MappedPersonBlockIterator;
+import com.softhouse.technicaltests.peopleporterpipeline.splitters.PersonBlockIterator;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.apache.camel.test.junit5.TestSupport.deleteDirectory;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the splitters and processors of the route's hot path against allocation regressions. Each stage is driven
+ * with the test input or its person blocks, and the bytes allocated per person by the test thread are compared with
+ * the budget of that stage in {@value #BUDGETS_FILENAME}. The stages are warmed up first, so the measurement reflects
+ * JIT compiled code.
+ *
+ * <p>When a change is expected to allocate more, raise its budget in the baseline file in the same commit. The measured
+ * values are logged on every run.</p>
+ */
+class HotPathAllocationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HotPathAllocationTest.class);
+
+    private static final String TEST_INPUT_FILENAME = "test-input.txt";
+    private static final String BUDGETS_FILENAME = "allocation-budgets.properties";
+    private static final String WORK_DIR = "target/test-allocation";
+
+    // The test input holds two persons; repeating it gives the splitter a file of realistic length
+    private static final int INPUT_REPETITIONS = 500;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static CamelContext camelContext;
+    private static Properties budgets;
+    private static String input;
+    private static Path inputFile;
+    private static List<String> blocks;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Per-thread allocation counters are not available on this JVM");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Per-thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        camelContext = new DefaultCamelContext();
+        budgets = new Properties();
+        try (InputStream is = resource(BUDGETS_FILENAME)) {
+            budgets.load(is);
+        }
+        try (InputStream is = resource(TEST_INPUT_FILENAME)) {
+            input = new String(is.readAllBytes(), StandardCharsets.UTF_8).strip().concat("\n").repeat(INPUT_REPETITIONS);
+        }
+
+        deleteDirectory(WORK_DIR);
+        createDirectory(WORK_DIR);
+        inputFile = Files.writeString(Path.of(WORK_DIR, TEST_INPUT_FILENAME), input, StandardCharsets.UTF_8);
+
+        blocks = new ArrayList<>();
+        try (PersonBlockIterator iterator = new PersonBlockIterator(new BufferedReader(new StringReader(input)))) {
+            iterator.forEachRemaining(blocks::add);
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (camelContext != null) {
+            camelContext.close();
+        }
+    }
+
+    @Test
+    void testPersonBlockIteratorStaysWithinBudget() throws Exception {
+        assertWithinBudget("PersonBlockIterator", blocks.size(), () -> {
+            try (PersonBlockIterator iterator = new PersonBlockIterator(Files.newBufferedReader(inputFile))) {
+                while (iterator.hasNext()) {
+                    iterator.next();
+                }
+            }
+        });
+    }
+
+    @Test
+    void testMappedPersonBlockIteratorStaysWithinBudget() throws Exception {
+        assertWithinBudget("MappedPersonBlockIterator", blocks.size(), () -> {
+            try (MappedPersonBlockIterator iterator = new MappedPersonBlockIterator(inputFile, StandardCharsets.UTF_8,
+                    MappedPersonBlockIterator.DEFAULT_WINDOW_SIZE)) {
+                while (iterator.hasNext()) {
+                    iterator.next();
+                }
+            }
+        });
+    }
+
+    @Test
+    void testInputLineParserStaysWithinBudget() throws Exception {
+        InputLineParser parser = new InputLineParser();
+        Exchange exchange = newExchange(null);
+
+        assertWithinBudget("InputLineParser", blocks.size(), () -> {
+            for (String block : blocks) {
+                exchange.getIn().setBody(block);
+                parser.process(exchange);
+            }
+        });
+    }
+
+    @Test
+    void testByteInputLineParserStaysWithinBudget() throws Exception {
+        List<PersonBlockBytes> byteBlocks = new ArrayList<>(blocks.size());
+        try (MappedPersonBlockIterator iterator = new MappedPersonBlockIterator(inputFile, StandardCharsets.UTF_8,
+                MappedPersonBlockIterator.DEFAULT_WINDOW_SIZE)) {
+            iterator.forEachRemaining(byteBlocks::add);
+            ByteInputLineParser parser = new ByteInputLineParser();
+
+            assertWithinBudget("ByteInputLineParser", byteBlocks.size(), () -> {
+                for (PersonBlockBytes block : byteBlocks) {
+                    parser.parse(block);
+                }
+            });
+        }
+    }
+
+    @Test
+    void testFusedPersonBlockProcessorStaysWithinBudget() throws Exception {
+        FusedPersonBlockProcessor processor = new FusedPersonBlockProcessor();
+
+        assertWithinBudget("FusedPersonBlockProcessor", blocks.size(), () -> {
+            for (String block : blocks) {
+                processor.build(block);
+            }
+        });
+    }
+
+    @Test
+    void testBuildPersonProcessorStaysWithinBudget() throws Exception {
+        InputLineParser parser = new InputLineParser();
+        List<Object> parsedBlocks = new ArrayList<>(blocks.size());
+        for (String block : blocks) {
+            Exchange exchange = newExchange(block);
+            parser.process(exchange);
+            parsedBlocks.add(exchange.getIn().getBody());
+        }
+        BuildPersonProcessor processor = new BuildPersonProcessor();
+        Exchange exchange = newExchange(null);
+
+        assertWithinBudget("BuildPersonProcessor", blocks.size(), () -> {
+            for (Object lines : parsedBlocks) {
+                exchange.getIn().setBody(lines);
+                processor.process(exchange);
+            }
+        });
+    }
+
+    /**
+     * Runs {@code round} until it is JIT compiled, then measures the bytes it allocates per person over several rounds
+     * and fails if they exceed the budget {@code <stage>.bytesPerPerson}.
+     */
+    private void assertWithinBudget(String stage, int personsPerRound, Round round) throws Exception {
+        String budget = budgets.getProperty(stage + ".bytesPerPerson");
+        assertNotNull(budget, "No allocation budget for " + stage + " in " + BUDGETS_FILENAME);
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            round.run();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        long bytesPerPerson = allocated / ((long) personsPerRound * MEASURED_ROUNDS);
+        log.info("{} allocated {} bytes per person, budget {}", stage, bytesPerPerson, budget);
+        assertTrue(bytesPerPerson <= Long.parseLong(budget.trim()),
+                "%s allocated %d bytes per person, over its budget of %s bytes in %s"
+                        .formatted(stage, bytesPerPerson, budget, BUDGETS_FILENAME));
+    }
+
+    private static Exchange newExchange(Object body) {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+
+    private static InputStream resource(String resourceName) throws FileNotFoundException {
+        InputStream is = HotPathAllocationTest.class.getClassLoader().getResourceAsStream(resourceName);
+        if (is == null) {
+            throw new FileNotFoundException("Resource not found: " + resourceName);
+        }
+        return is;
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws Exception;
+    }
+}
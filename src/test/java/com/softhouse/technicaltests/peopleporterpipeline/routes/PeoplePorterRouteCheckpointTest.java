@@ -0,0 +1,92 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.checkpoint.Checkpoint;
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.ParserKind;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PeoplePorterRouteCheckpointTest extends PeoplePorterRouteTestSupport {
+
+    private static final String STAGING_DIR = "target/test-checkpoint-staging";
+    private static final String INPUT_DIR = "target/test-checkpoint-input";
+    private static final String OUTPUT_DIR = "target/test-checkpoint-output";
+    private static final String ERROR_DIR = "target/test-checkpoint-error";
+
+    private PeoplePorterRoute route;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        route = new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                // Checkpoint after every person
+                PipelineOptions.builder()
+                        .outputMode(OutputMode.STREAMING)
+                        .parserKind(ParserKind.MAPPED_BYTES)
+                        .checkpointInterval(Duration.ofNanos(1))
+                        .build()
+        );
+        return route;
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(STAGING_DIR, INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(STAGING_DIR);
+        createDirectory(INPUT_DIR);
+        createDirectory(OUTPUT_DIR);
+
+        copyTestInput(STAGING_DIR);
+    }
+
+    @Test
+    void testCheckpointedOutputMatchesExpectedAndCheckpointIsRemoved() throws Exception {
+        Path input = Path.of(INPUT_DIR, TEST_INPUT_FILENAME);
+        Files.move(Path.of(STAGING_DIR, TEST_INPUT_FILENAME), input);
+        awaitCondition("the input file to be consumed", () -> Files.notExists(input));
+
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        assertEquals(expectedXml(), Files.readString(actualOutput, StandardCharsets.UTF_8),
+                "The checkpointed output does not match the expected output");
+        assertFalse(Files.exists(Checkpoint.sidecarFor(actualOutput)), "Checkpoint was not removed after completion");
+    }
+
+    @Test
+    void testResumesFromCheckpointAfterCrash() throws Exception {
+        Path staged = Path.of(STAGING_DIR, TEST_INPUT_FILENAME);
+        Path input = Path.of(INPUT_DIR, TEST_INPUT_FILENAME);
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+
+        // State left behind by a run that died while writing the second person: the first person is checkpointed,
+        // the bytes written after the checkpoint are incomplete
+        String expectedXml = expectedXml();
+        String inputText = Files.readString(staged, StandardCharsets.UTF_8);
+        String firstPerson = expectedXml.substring(0, expectedXml.indexOf("    </person>\n") + "    </person>\n".length());
+        Files.writeString(actualOutput, firstPerson + "    <person>\n        <firstname>Bar", StandardCharsets.UTF_8);
+        new Checkpoint(input.toAbsolutePath().normalize().toString(), Files.size(staged),
+                Files.getLastModifiedTime(staged).toMillis(), inputText.indexOf("P|Barack"),
+                firstPerson.getBytes(StandardCharsets.UTF_8).length, 1)
+                .save(Checkpoint.sidecarFor(actualOutput));
+
+        Files.move(staged, input);
+        awaitCondition("the input file to be consumed", () -> Files.notExists(input));
+
+        assertEquals(expectedXml, Files.readString(actualOutput, StandardCharsets.UTF_8),
+                "The resumed output does not match the expected output");
+        assertEquals(1, route.getMetrics().getPersonsBuilt(), "Only the person after the checkpoint should be rebuilt");
+        assertFalse(Files.exists(Checkpoint.sidecarFor(actualOutput)), "Checkpoint was not removed after completion");
+    }
+}
@@ -0,0 +1,62 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteCompressionTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-compression-input";
+    private static final String OUTPUT_DIR = "target/test-compression-output";
+    private static final String ERROR_DIR = "target/test-compression-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=${file:name.noext}.xml.gz",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder()
+                        .compressOutput(true)
+                        .outputCompressionLevel(Deflater.BEST_COMPRESSION)
+                        .build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+
+        // Compress to a temporary name, so the consumer never picks up a partially written file
+        Path compressed = Path.of(INPUT_DIR, TEST_INPUT_FILENAME + ".gz.tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(testInput(), out);
+        }
+        Files.move(compressed, Path.of(INPUT_DIR, TEST_INPUT_FILENAME + ".gz"));
+    }
+
+    @Test
+    void testCompressedInputIsConvertedToCompressedOutput() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "test-input.xml.gz");
+        awaitFiles(actualOutput);
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(actualOutput))) {
+            assertEquals(expectedXml(), new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                    "The decompressed output does not match the expected output");
+        }
+    }
+}
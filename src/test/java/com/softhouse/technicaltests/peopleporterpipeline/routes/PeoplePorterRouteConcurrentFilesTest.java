@@ -0,0 +1,58 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteConcurrentFilesTest extends PeoplePorterRouteTestSupport {
+
+    private static final int FILE_COUNT = 8;
+
+    private static final String INPUT_DIR = "target/test-concurrent-input";
+    private static final String OUTPUT_DIR = "target/test-concurrent-output";
+    private static final String ERROR_DIR = "target/test-concurrent-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=${file:name.noext}.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().fileConcurrency(4).build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+
+        // Several copies of the test input, picked up in one poll and processed at the same time
+        for (int i = 0; i < FILE_COUNT; i++) {
+            Files.copy(testInput(), Path.of(INPUT_DIR, "people-" + i + ".txt"));
+        }
+    }
+
+    @Test
+    void testEachFileIsAggregatedIntoItsOwnOutput() throws Exception {
+        Path[] actualOutputs = IntStream.range(0, FILE_COUNT)
+                .mapToObj(i -> Path.of(OUTPUT_DIR, "people-" + i + ".xml"))
+                .toArray(Path[]::new);
+        awaitFiles(actualOutputs);
+
+        String expectedXml = normalizeXml(loadResource(EXPECTED_OUTPUT_FILENAME));
+        for (Path actualOutput : actualOutputs) {
+            assertEquals(expectedXml, normalizeXml(Files.readString(actualOutput, StandardCharsets.UTF_8)),
+                    "Persons of concurrently processed files were mixed up in " + actualOutput);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.delta.DeltaTracker;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeoplePorterRouteDeltaTest extends PeoplePorterRouteTestSupport {
+
+    private static final String STAGING_DIR = "target/test-delta-staging";
+    private static final String INPUT_DIR = "target/test-delta-input";
+    private static final String OUTPUT_DIR = "target/test-delta-output";
+    private static final String ERROR_DIR = "target/test-delta-error";
+    private static final String DELTA_DIR = "target/test-delta-index";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=${file:name.noext}.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().deltaDirectory(Path.of(DELTA_DIR)).build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(STAGING_DIR, INPUT_DIR, OUTPUT_DIR, ERROR_DIR, DELTA_DIR);
+        createDirectory(STAGING_DIR);
+        createDirectory(INPUT_DIR);
+    }
+
+    @Test
+    void testSecondRunEmitsOnlyNewChangedAndRemovedPersons() throws Exception {
+        String firstExport = Files.readString(testInput(), StandardCharsets.UTF_8);
+        Path delta = Path.of(DELTA_DIR, "people" + DeltaTracker.DELTA_SUFFIX);
+
+        drop(firstExport);
+
+        assertTrue(Files.exists(Path.of(DELTA_DIR, "people" + DeltaTracker.INDEX_SUFFIX)), "Delta index was not written");
+        List<String> firstDelta = Files.readAllLines(delta, StandardCharsets.UTF_8);
+        assertEquals(2, firstDelta.size(), "Every person of the first run should be new");
+        assertTrue(firstDelta.stream().allMatch(line -> line.startsWith("{\"change\":\"NEW\"")), "Unexpected delta: " + firstDelta);
+
+        // Carl Gustaf is removed, Barack Obama moves, Michelle Obama is added
+        String secondExport = firstExport.substring(firstExport.indexOf("P|Barack"))
+                .replace("1600 Pennsylvania Avenue", "1 Lake Shore Drive")
+                + "\nP|Michelle|Obama\n";
+        drop(secondExport);
+
+        assertEquals(List.of(
+                        "{\"change\":\"CHANGED\",\"person\":{\"firstname\":\"Barack\",\"lastname\":\"Obama\",\"address\":{\"street\":\"1 Lake Shore Drive\",\"city\":\"Washington, D.C\"},\"family\":[]}}",
+                        "{\"change\":\"NEW\",\"person\":{\"firstname\":\"Michelle\",\"lastname\":\"Obama\",\"family\":[]}}",
+                        "{\"change\":\"REMOVED\",\"person\":{\"firstname\":\"Carl Gustaf\",\"lastname\":\"Bernadotte\",\"family\":[]}}"),
+                Files.readAllLines(delta, StandardCharsets.UTF_8),
+                "The delta of the second run does not match");
+
+        drop(secondExport);
+
+        assertEquals(List.of(), Files.readAllLines(delta, StandardCharsets.UTF_8), "An unchanged export should have an empty delta");
+    }
+
+    // Drops the export into the input folder and waits until the route has consumed it
+    private void drop(String content) throws Exception {
+        Path staged = Path.of(STAGING_DIR, "people.txt");
+        Path input = Path.of(INPUT_DIR, "people.txt");
+        Files.writeString(staged, content, StandardCharsets.UTF_8);
+        Files.move(staged, input);
+        awaitCondition("the input file to be consumed", () -> Files.notExists(input));
+    }
+}
@@ -0,0 +1,50 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineTopology;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteFusedTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-fused-input";
+    private static final String OUTPUT_DIR = "target/test-fused-output";
+    private static final String ERROR_DIR = "target/test-fused-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().topology(PipelineTopology.FUSED).build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+
+        // Copy test-input.txt from test resources into Camel input folder
+        copyTestInput(INPUT_DIR);
+    }
+
+    @Test
+    void testFusedTopologyOutputMatchesExpected() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(actualOutput);
+
+        String actualXml = normalizeXml(Files.readString(actualOutput));
+        String expectedXml = normalizeXml(loadResource(EXPECTED_OUTPUT_FILENAME));
+
+        assertEquals(expectedXml, actualXml, "The generated XML does not match the expected output");
+    }
+}
@@ -0,0 +1,69 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.XmlMarshaller;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.GeneratedXmlDataFormat;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteGeneratedXmlTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-generated-xml-input";
+    private static final String OUTPUT_DIR = "target/test-generated-xml-output";
+    private static final String ERROR_DIR = "target/test-generated-xml-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=${file:name.noext}.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().xmlMarshaller(XmlMarshaller.GENERATED).build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+        copyTestInput(INPUT_DIR);
+    }
+
+    @Test
+    void testGeneratedSerializerOutputIsIdenticalToJaxbOutput() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "test-input.xml");
+        awaitFiles(actualOutput);
+
+        assertEquals(expectedXml(), Files.readString(actualOutput, StandardCharsets.UTF_8),
+                "The generated serializer output is not byte-compatible with the JAXB output");
+    }
+
+    @Test
+    void testGeneratedXmlDataFormatUnmarshalsItsOutput() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "test-input.xml");
+        awaitFiles(actualOutput);
+
+        GeneratedXmlDataFormat dataFormat = new GeneratedXmlDataFormat();
+        dataFormat.setCamelContext(context);
+        dataFormat.start();
+        try (InputStream in = Files.newInputStream(actualOutput)) {
+            People people = (People) dataFormat.unmarshal(new DefaultExchange(context), in);
+            assertEquals(firstnames(actualOutput), people.getPeople().stream().map(Person::getFirstname).toList(),
+                    "Unmarshalling did not read back the marshalled persons");
+        } finally {
+            dataFormat.stop();
+        }
+    }
+}
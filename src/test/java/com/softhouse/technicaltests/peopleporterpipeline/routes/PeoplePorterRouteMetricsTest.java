@@ -0,0 +1,67 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.metrics.PipelineMetricsService;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.ROUTE_ID_BUILD_PERSON;
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.ROUTE_ID_READ_AND_SPLIT_PEOPLE;
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeoplePorterRouteMetricsTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-metrics-input";
+    private static final String OUTPUT_DIR = "target/test-metrics-output";
+    private static final String ERROR_DIR = "target/test-metrics-error";
+
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+        copyTestInput(INPUT_DIR);
+    }
+
+    @Test
+    void testMetricsAreExposedOverJmx() throws Exception {
+        Path output = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(output);
+
+        ObjectName pipeline = objectName("type=PipelineMetrics");
+        assertEquals(Files.size(testInput()), mbeanServer.getAttribute(pipeline, "BytesRead"));
+        assertEquals(Files.size(output), mbeanServer.getAttribute(pipeline, "BytesWritten"));
+        assertEquals(9L, mbeanServer.getAttribute(pipeline, "LinesParsed"));
+        assertEquals(2L, mbeanServer.getAttribute(pipeline, "PersonsBuilt"));
+        assertEquals(0L, mbeanServer.getAttribute(pipeline, "BlocksRejected"));
+
+        ObjectName readRoute = objectName("type=RouteLatency,route=" + ObjectName.quote(ROUTE_ID_READ_AND_SPLIT_PEOPLE));
+        assertEquals(1L, mbeanServer.getAttribute(readRoute, "Count"));
+        assertTrue((Double) mbeanServer.getAttribute(readRoute, "MaxMillis") > 0, "Read route latency was not recorded");
+
+        ObjectName buildRoute = objectName("type=RouteLatency,route=" + ObjectName.quote(ROUTE_ID_BUILD_PERSON));
+        assertEquals(2L, mbeanServer.getAttribute(buildRoute, "Count"));
+    }
+
+    private ObjectName objectName(String properties) throws Exception {
+        return new ObjectName(PipelineMetricsService.DOMAIN + ":context=" + ObjectName.quote(context.getName()) + "," + properties);
+    }
+}
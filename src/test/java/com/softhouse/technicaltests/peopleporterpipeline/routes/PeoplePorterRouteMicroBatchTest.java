@@ -0,0 +1,71 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.softhouse.technicaltests.peopleporterpipeline.common.RouteConstants.ROUTE_ID_BUILD_PERSON;
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteMicroBatchTest extends PeoplePorterRouteTestSupport {
+
+    private static final int PERSON_COUNT = 500;
+    private static final int BATCH_SIZE = 7;
+
+    private static final String INPUT_DIR = "target/test-batch-input";
+    private static final String OUTPUT_DIR = "target/test-batch-output";
+    private static final String ERROR_DIR = "target/test-batch-error";
+    private PeoplePorterRoute route;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        route = new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                // Parallel, so batches are also resequenced; the last batch is not full
+                PipelineOptions.builder()
+                        .splitBatchSize(BATCH_SIZE)
+                        .parallelProcessing(true)
+                        .parallelism(4)
+                        .build()
+        );
+        return route;
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < PERSON_COUNT; i++) {
+            input.append("P|Person").append(i).append("|Lastname\n");
+            input.append("T|0768-").append(i).append("|08-").append(i).append('\n');
+            input.append("A|Street ").append(i).append("|Stockholm|10001\n");
+        }
+        Files.writeString(Path.of(INPUT_DIR, "batch-input.txt"), input);
+    }
+
+    @Test
+    void testBatchedBlocksAreAggregatedAsPersonsInInputOrder() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(actualOutput);
+
+        List<String> firstnames = firstnames(actualOutput);
+        List<String> expected = IntStream.range(0, PERSON_COUNT).mapToObj(i -> "Person" + i).toList();
+        assertEquals(expected, firstnames, "Persons are missing or not in input order");
+
+        assertEquals(PERSON_COUNT, route.getMetrics().getPersonsBuilt(), "Every person should have been built");
+        assertEquals((PERSON_COUNT + BATCH_SIZE - 1) / BATCH_SIZE,
+                route.getMetrics().getRouteLatencies().get(ROUTE_ID_BUILD_PERSON).getCount(),
+                "Blocks should pass the build route one batch per exchange");
+    }
+}
@@ -0,0 +1,86 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputFormat;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.People;
+import com.softhouse.technicaltests.peopleporterpipeline.domain.Person;
+import com.softhouse.technicaltests.peopleporterpipeline.output.PeopleBinaryReader;
+import jakarta.xml.bind.JAXBContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteOutputFormatTest extends PeoplePorterRouteTestSupport {
+
+    private static final String EXPECTED_JSON_LINES_FILENAME = "expected-test-output.jsonl";
+
+    private static final String STAGING_DIR = "target/test-output-format-staging";
+    private static final String INPUT_DIR = "target/test-output-format-input";
+    private static final String OUTPUT_DIR = "target/test-output-format-output";
+    private static final String ERROR_DIR = "target/test-output-format-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=${file:name.noext}.${exchangeProperty.outputFormat.fileExtension}",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder()
+                        .outputFormatsByFileName(Map.of(
+                                ".*-json\\.txt", OutputFormat.JSON_LINES,
+                                ".*-binary\\.txt", OutputFormat.BINARY))
+                        .build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(STAGING_DIR, INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(STAGING_DIR);
+        createDirectory(INPUT_DIR);
+
+        for (String name : List.of("people.txt", "people-json.txt", "people-binary.txt")) {
+            Files.copy(testInput(), Path.of(STAGING_DIR, name));
+            Files.move(Path.of(STAGING_DIR, name), Path.of(INPUT_DIR, name));
+        }
+    }
+
+    @Test
+    void testEachFileIsWrittenInItsSelectedFormat() throws Exception {
+        Path xmlOutput = Path.of(OUTPUT_DIR, "people.xml");
+        Path jsonOutput = Path.of(OUTPUT_DIR, "people-json.jsonl");
+        Path binaryOutput = Path.of(OUTPUT_DIR, "people-binary.bin");
+        awaitFiles(xmlOutput, jsonOutput, binaryOutput);
+
+        String expectedXml = expectedXml();
+        People expectedPeople = (People) JAXBContext.newInstance(People.class).createUnmarshaller()
+                .unmarshal(new StringReader(expectedXml));
+
+        assertEquals(expectedXml, Files.readString(xmlOutput, StandardCharsets.UTF_8),
+                "The XML output does not match the expected output");
+
+        List<String> jsonLines = Files.readAllLines(jsonOutput, StandardCharsets.UTF_8);
+        assertEquals(expectedPeople.getPeople().size(), jsonLines.size(), "Expected one JSON line per person");
+        assertEquals(loadResource(EXPECTED_JSON_LINES_FILENAME), Files.readString(jsonOutput, StandardCharsets.UTF_8),
+                "The JSON Lines output does not match the expected output");
+
+        List<Person> binaryPeople = new ArrayList<>();
+        try (PeopleBinaryReader reader = new PeopleBinaryReader(Files.newInputStream(binaryOutput))) {
+            for (Person person = reader.read(); person != null; person = reader.read()) {
+                binaryPeople.add(person);
+            }
+        }
+        assertEquals(expectedPeople.getPeople(), binaryPeople, "The binary output does not hold the expected persons");
+    }
+}
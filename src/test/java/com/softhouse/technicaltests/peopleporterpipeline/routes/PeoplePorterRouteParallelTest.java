@@ -0,0 +1,90 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.ExecutorKind;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteParallelTest extends PeoplePorterRouteTestSupport {
+
+    private static final int PERSON_COUNT = 500;
+
+    private static final String INPUT_DIR = "target/test-parallel-input";
+    private static final String OUTPUT_DIR = "target/test-parallel-output";
+    private static final String ERROR_DIR = "target/test-parallel-error";
+
+    // Far below the person count, so the splitter has to wait for the resequencer
+    private static final int RESEQUENCER_CAPACITY = 8;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder()
+                        .parallelProcessing(true)
+                        .parallelism(4)
+                        .executorKind(ExecutorKind.VIRTUAL_THREADS)
+                        .resequencerCapacity(RESEQUENCER_CAPACITY)
+                        .build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+
+        Files.writeString(Path.of(INPUT_DIR, "parallel-input.txt"), input(-1));
+    }
+
+    @Test
+    void testParallelProcessingPreservesInputOrder() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(actualOutput);
+
+        assertInInputOrder(actualOutput);
+    }
+
+    @Test
+    void testFailedBlockFailsFileWhileSplitterWaits() throws Exception {
+        // An early block fails while the splitter is held back behind it
+        Path invalidInput = Files.writeString(Path.of(INPUT_DIR, "invalid-input.txt"), input(2));
+
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(Path.of(ERROR_DIR, "invalid-input.txt"), actualOutput);
+        // The file is only consumed once splitting stops
+        awaitCondition("the failed input file to be consumed", () -> Files.notExists(invalidInput));
+
+        assertInInputOrder(actualOutput);
+    }
+
+    private static void assertInInputOrder(Path actualOutput) throws Exception {
+        List<String> expected = IntStream.range(0, PERSON_COUNT).mapToObj(i -> "Person" + i).toList();
+        assertEquals(expected, firstnames(actualOutput), "Persons are not in input order");
+    }
+
+    /**
+     * Returns {@link #PERSON_COUNT} persons, of which the one at {@code invalidIndex} has a line of an unknown type.
+     */
+    private static String input(int invalidIndex) {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < PERSON_COUNT; i++) {
+            input.append("P|Person").append(i).append("|Lastname\n");
+            input.append("T|0768-").append(i).append("|08-").append(i).append('\n');
+            input.append(i == invalidIndex ? "X|Child" + i + "\n" : "F|Child" + i + "|2001\n");
+            input.append("A|Street ").append(i).append("|Stockholm|10001\n");
+        }
+        return input.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.ParserKind;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeoplePorterRouteRejectTest extends PeoplePorterRouteTestSupport {
+
+    private static final int PERSON_COUNT = 100;
+
+    private static final String INPUT_DIR = "target/test-reject-input";
+    private static final String OUTPUT_DIR = "target/test-reject-output";
+    private static final String ERROR_DIR = "target/test-reject-error";
+    private static final String REJECT_DIR = "target/test-reject-rejects";
+
+    private static final Pattern REJECTED_LINE = Pattern.compile("\"line\":(\\d+)");
+
+    private PeoplePorterRoute route;
+    private List<Long> invalidPersonLines;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        // Line numbers are counted differently for joined and memory-mapped blocks, so both parsers are tested
+        ParserKind parserKind = getCurrentTestName().contains("Mapped") ? ParserKind.MAPPED_BYTES : ParserKind.STRING;
+        OutputMode outputMode = getCurrentTestName().contains("Streaming") ? OutputMode.STREAMING : OutputMode.AGGREGATE;
+        route = new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=${file:name.noext}.xml",
+                "file:" + ERROR_DIR,
+                // Parallel, so rejected blocks must also be skipped by the resequencer
+                PipelineOptions.builder()
+                        .parallelProcessing(true)
+                        .parallelism(4)
+                        .parserKind(parserKind)
+                        .outputMode(outputMode)
+                        .rejectDirectory(Path.of(REJECT_DIR))
+                        .build()
+        );
+        return route;
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR, REJECT_DIR);
+        createDirectory(INPUT_DIR);
+
+        // Every tenth person, including the last one, has a line of an unknown type. Every third person is followed by a
+        // blank line, which belongs to its block, so the line numbers of later blocks must count it.
+        StringBuilder input = new StringBuilder();
+        invalidPersonLines = new ArrayList<>();
+        long line = 1;
+        for (int i = 0; i < PERSON_COUNT; i++) {
+            if (isInvalid(i)) {
+                invalidPersonLines.add(line);
+            }
+            input.append("P|Person").append(i).append("|Lastname\n");
+            input.append("T|0768-").append(i).append("|08-").append(i).append('\n');
+            input.append(isInvalid(i) ? "X|Child" + i + "\n" : "F|Child" + i + "|2001\n");
+            input.append("A|Street ").append(i).append("|Stockholm|10001\n");
+            line += 4;
+            if (i % 3 == 2) {
+                input.append('\n');
+                line++;
+            }
+        }
+        Files.writeString(Path.of(INPUT_DIR, "reject-input.txt"), input);
+    }
+
+    @Test
+    void testInvalidBlocksAreRejectedAndValidPersonsWritten() throws Exception {
+        assertInvalidBlocksRejected();
+    }
+
+    @Test
+    void testInvalidMappedBlocksAreRejectedAndValidPersonsWritten() throws Exception {
+        assertInvalidBlocksRejected();
+    }
+
+    @Test
+    void testFileWithOnlyRejectedBlocksFails() throws Exception {
+        assertFileWithOnlyRejectedBlocksFails();
+    }
+
+    @Test
+    void testStreamingFileWithOnlyRejectedBlocksFails() throws Exception {
+        assertFileWithOnlyRejectedBlocksFails();
+    }
+
+    private void assertInvalidBlocksRejected() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "reject-input.xml");
+        awaitFiles(actualOutput);
+
+        List<String> expected = IntStream.range(0, PERSON_COUNT).filter(i -> !isInvalid(i)).mapToObj(i -> "Person" + i).toList();
+        assertEquals(expected, firstnames(actualOutput), "Valid persons are missing or out of order");
+
+        List<Long> rejectedLines = new ArrayList<>();
+        for (String line : Files.readAllLines(Path.of(REJECT_DIR, "reject-input.rejected.jsonl"))) {
+            assertTrue(line.contains("Unsupported line type"), "Rejected block without its cause: " + line);
+            Matcher rejected = REJECTED_LINE.matcher(line);
+            assertTrue(rejected.find(), "Rejected block without its line number: " + line);
+            rejectedLines.add(Long.parseLong(rejected.group(1)));
+        }
+        assertEquals(invalidPersonLines, rejectedLines.stream().sorted().toList(), "Unexpected rejected blocks");
+
+        assertEquals(invalidPersonLines.size(), route.getMetrics().getBlocksRejected(), "Rejected blocks were not counted");
+        assertEquals(0, route.getMetrics().getFilesFailed(), "The file should not have failed");
+        assertFalse(Files.exists(Path.of(ERROR_DIR)), "The file should not have been moved to the error folder");
+    }
+
+    // Both output modes treat the file like one without any person block, rather than writing an empty document
+    private void assertFileWithOnlyRejectedBlocksFails() throws Exception {
+        Files.writeString(Path.of(INPUT_DIR, "all-rejected.txt"), "P|Person|Lastname\nX|Child\n\nP|Other|Lastname\nX|Child\n");
+
+        awaitFiles(Path.of(ERROR_DIR, "all-rejected.txt"), Path.of(OUTPUT_DIR, "reject-input.xml"));
+
+        assertFalse(Files.exists(Path.of(OUTPUT_DIR, "all-rejected.xml")), "No output should be written without a valid block");
+        assertEquals(2, Files.readAllLines(Path.of(REJECT_DIR, "all-rejected.rejected.jsonl")).size(),
+                "The rejected blocks should still be set aside");
+        assertEquals(1, route.getMetrics().getFilesFailed(), "Only the file without a valid block should have failed");
+    }
+
+    private static boolean isInvalid(int person) {
+        return person % 10 == 9;
+    }
+}
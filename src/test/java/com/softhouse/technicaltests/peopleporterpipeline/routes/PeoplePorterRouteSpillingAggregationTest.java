@@ -0,0 +1,71 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.CamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteSpillingAggregationTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-spilling-input";
+    private static final String OUTPUT_DIR = "target/test-spilling-output";
+    private static final String ERROR_DIR = "target/test-spilling-error";
+    private static final String SPILL_DIR = "target/test-spilling-spill";
+
+    // Spools the marshalled document as well, which the route leaves to whoever sets up the context
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getStreamCachingStrategy().setSpoolEnabled(true);
+        context.getStreamCachingStrategy().setSpoolDirectory(SPILL_DIR);
+        return context;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                // Spill every person to disk
+                PipelineOptions.builder()
+                        .aggregationSpillThreshold(1)
+                        .aggregationSpillDirectory(Path.of(SPILL_DIR))
+                        .build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR, SPILL_DIR);
+        createDirectory(INPUT_DIR);
+        createDirectory(SPILL_DIR);
+
+        // Copy test-input.txt from test resources into Camel input folder
+        copyTestInput(INPUT_DIR);
+    }
+
+    @Test
+    void testSpilledAggregationOutputMatchesExpected() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(actualOutput);
+
+        String actualXml = normalizeXml(Files.readString(actualOutput));
+        String expectedXml = normalizeXml(loadResource(EXPECTED_OUTPUT_FILENAME));
+
+        assertEquals(expectedXml, actualXml, "The generated XML does not match the expected output");
+        try (Stream<Path> spillFiles = Files.list(Path.of(SPILL_DIR))) {
+            assertEquals(List.of(), spillFiles.filter(file -> file.toString().endsWith(".spill")).toList(),
+                    "Spill files were not deleted after marshalling");
+        }
+    }
+}
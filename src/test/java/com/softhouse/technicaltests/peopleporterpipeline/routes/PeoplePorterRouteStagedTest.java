@@ -0,0 +1,83 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineTopology;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PeoplePorterRouteStagedTest extends PeoplePorterRouteTestSupport {
+
+    private static final int PERSON_COUNT = 500;
+
+    private static final String STAGING_DIR = "target/test-staged-staging";
+    private static final String INPUT_DIR = "target/test-staged-input";
+    private static final String OUTPUT_DIR = "target/test-staged-output";
+    private static final String ERROR_DIR = "target/test-staged-error";
+    private PeoplePorterRoute route;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        route = new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                // Tiny queues, so the reader is regularly blocked by the stages behind it
+                PipelineOptions.builder()
+                        .topology(PipelineTopology.STAGED)
+                        .stageQueueCapacity(4)
+                        .build()
+        );
+        return route;
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(STAGING_DIR, INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(STAGING_DIR);
+        createDirectory(INPUT_DIR);
+    }
+
+    @Test
+    void testStagedPipelinePreservesInputOrder() throws Exception {
+        dropInput(-1);
+
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(actualOutput);
+
+        List<String> expected = IntStream.range(0, PERSON_COUNT).mapToObj(i -> "Person" + i).toList();
+        assertEquals(expected, firstnames(actualOutput), "Persons are missing or not in input order");
+    }
+
+    @Test
+    void testBlockFailingInStageFailsWholeFile() throws Exception {
+        dropInput(PERSON_COUNT / 2);
+
+        awaitFiles(Path.of(ERROR_DIR, "staged-input.txt"));
+
+        assertFalse(Files.exists(Path.of(OUTPUT_DIR, "people.xml")), "No output should be written for a failed file");
+        assertEquals(1, route.getMetrics().getFilesFailed(), "The file failure was not recorded");
+    }
+
+    // Writes the input in one go, with a line of an unknown type in the given person unless negative
+    private void dropInput(int invalidPerson) throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < PERSON_COUNT; i++) {
+            input.append("P|Person").append(i).append("|Lastname\n");
+            input.append("T|0768-").append(i).append("|08-").append(i).append('\n');
+            input.append(i == invalidPerson ? "X|Child" + i + "\n" : "F|Child" + i + "|2001\n");
+            input.append("A|Street ").append(i).append("|Stockholm|10001\n");
+        }
+        Path staged = Files.writeString(Path.of(STAGING_DIR, "staged-input.txt"), input);
+        Files.move(staged, Path.of(INPUT_DIR, "staged-input.txt"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.OutputMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteStreamingOutputTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-streaming-input";
+    private static final String OUTPUT_DIR = "target/test-streaming-output";
+    private static final String ERROR_DIR = "target/test-streaming-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=${file:name.noext}.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().outputMode(OutputMode.STREAMING).build()
+        );
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+        copyTestInput(INPUT_DIR);
+    }
+
+    @Test
+    void testStreamedXmlIsIdenticalToJaxbOutput() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "test-input.xml");
+        awaitFiles(actualOutput);
+
+        assertEquals(expectedXml(), Files.readString(actualOutput, StandardCharsets.UTF_8),
+                "The streamed XML is not byte-compatible with the JAXB output");
+    }
+}
@@ -0,0 +1,125 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import org.apache.camel.test.junit5.CamelTestSupport;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.apache.camel.test.junit5.TestSupport.deleteDirectory;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Base class of the {@link PeoplePorterRoute} tests, which drop input files into a folder and check what the route
+ * writes to its output and error folders.
+ *
+ * <p>Rather than sleeping for a fixed time, tests wait with {@link #awaitFiles(Path...)} or
+ * {@link #awaitCondition(String, BooleanSupplier)} until the route has produced what they expect and no exchange is in
+ * flight any more, failing after a generous timeout.</p>
+ */
+abstract class PeoplePorterRouteTestSupport extends CamelTestSupport {
+
+    protected static final String TEST_INPUT_FILENAME = "test-input.txt";
+    protected static final String EXPECTED_OUTPUT_FILENAME = "expected-test-output.xml";
+
+    private static final Duration PROCESSING_TIMEOUT = Duration.ofSeconds(30);
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private static final Pattern FIRSTNAME = Pattern.compile("<firstname>(.*?)</firstname>");
+
+    /**
+     * Deletes the given folders, so a test never sees files left behind by an earlier run.
+     */
+    protected static void resetDirectories(String... dirs) {
+        for (String dir : dirs) {
+            deleteDirectory(dir);
+        }
+    }
+
+    /**
+     * Returns the path of {@link #TEST_INPUT_FILENAME} in the test resources.
+     */
+    protected Path testInput() throws IOException {
+        URL resource = getClass().getClassLoader().getResource(TEST_INPUT_FILENAME);
+        if (resource == null) {
+            throw new FileNotFoundException("Resource not found: " + TEST_INPUT_FILENAME);
+        }
+        try {
+            return Path.of(resource.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid resource location: " + resource, e);
+        }
+    }
+
+    /**
+     * Copies {@link #TEST_INPUT_FILENAME} into {@code dir} under its own name.
+     */
+    protected Path copyTestInput(String dir) throws IOException {
+        return Files.copy(testInput(), Path.of(dir, TEST_INPUT_FILENAME));
+    }
+
+    protected String loadResource(String resourceName) throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourceName)) {
+            if (is == null) {
+                throw new FileNotFoundException("Resource not found: " + resourceName);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Returns the expected XML output of {@link #TEST_INPUT_FILENAME}. The expected file is JAXB output without the
+     * trailing newline.
+     */
+    protected String expectedXml() throws IOException {
+        return loadResource(EXPECTED_OUTPUT_FILENAME) + "\n";
+    }
+
+    protected static String normalizeXml(String xml) {
+        return xml.replaceAll(">\\s+<", "><").trim();
+    }
+
+    /**
+     * Returns the first names of the persons in the XML document {@code output}, in document order.
+     */
+    protected static List<String> firstnames(Path output) throws IOException {
+        List<String> firstnames = new ArrayList<>();
+        Matcher matcher = FIRSTNAME.matcher(Files.readString(output, StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            firstnames.add(matcher.group(1));
+        }
+        return firstnames;
+    }
+
+    /**
+     * Waits until all of {@code files} exist and the route has finished processing.
+     */
+    protected void awaitFiles(Path... files) throws InterruptedException {
+        awaitCondition("files " + Arrays.toString(files), () -> Arrays.stream(files).allMatch(Files::exists));
+    }
+
+    /**
+     * Waits until {@code condition} holds and no exchange is in flight, so the route has finished processing.
+     */
+    protected void awaitCondition(String description, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + PROCESSING_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean() || context.getInflightRepository().size() > 0) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out after " + PROCESSING_TIMEOUT + " waiting for " + description);
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+}
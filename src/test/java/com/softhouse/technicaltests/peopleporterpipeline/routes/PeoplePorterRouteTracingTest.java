@@ -0,0 +1,63 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import com.softhouse.technicaltests.peopleporterpipeline.tracing.BlockTracer;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeoplePorterRouteTracingTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-tracing-input";
+    private static final String OUTPUT_DIR = "target/test-tracing-output";
+    private static final String ERROR_DIR = "target/test-tracing-error";
+
+    private PeoplePorterRoute route;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        route = new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().traceBufferSize(4).build()
+        );
+        return route;
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+
+        Files.writeString(Path.of(INPUT_DIR, "broken-input.txt"), """
+                P|Carl Gustaf|Bernadotte
+                T|0768-101801|08-101801
+                P|Barack|Obama
+                X|unsupported|line
+                P|Never|Reached
+                """);
+    }
+
+    @Test
+    void testTraceBufferKeepsTransitionsLeadingUpToFailure() throws Exception {
+        awaitFiles(Path.of(ERROR_DIR, "broken-input.txt"));
+
+        // Oldest transitions have been overwritten, the failure is the most recent one
+        List<String> transitions = route.getTracer().snapshot();
+        assertEquals(4, transitions.size());
+        assertTrue(transitions.get(0).contains("block 0 " + BlockTracer.STAGE_PARSED), transitions.get(0));
+        assertTrue(transitions.get(1).contains("block 0 " + BlockTracer.STAGE_BUILT), transitions.get(1));
+        assertTrue(transitions.get(2).contains("block 1 " + BlockTracer.STAGE_SPLIT), transitions.get(2));
+        assertTrue(transitions.get(3).contains(BlockTracer.STAGE_FAILED), transitions.get(3));
+        assertTrue(transitions.get(3).contains("Unsupported line type"), transitions.get(3));
+    }
+}
@@ -0,0 +1,56 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteValueDictionaryTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-dictionary-input";
+    private static final String OUTPUT_DIR = "target/test-dictionary-output";
+    private static final String ERROR_DIR = "target/test-dictionary-error";
+
+    private PeoplePorterRoute route;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        route = new PeoplePorterRoute(
+                "file:" + INPUT_DIR + "?noop=false&delete=true",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().valueDictionarySize(64).build()
+        );
+        return route;
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+
+        // Copy test-input.txt from test resources into Camel input folder
+        copyTestInput(INPUT_DIR);
+    }
+
+    @Test
+    void testDeduplicatedOutputMatchesExpectedAndHitRateIsReported() throws Exception {
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(actualOutput);
+
+        String actualXml = normalizeXml(Files.readString(actualOutput));
+        String expectedXml = normalizeXml(loadResource(EXPECTED_OUTPUT_FILENAME));
+
+        assertEquals(expectedXml, actualXml, "The generated XML does not match the expected output");
+
+        // 16 address, phone and family member values, of which only the second "Stockholm" repeats
+        assertEquals(16, route.getMetrics().getDictionaryLookups(), "Unexpected number of dictionary lookups");
+        assertEquals(1.0 / 16, route.getMetrics().getDictionaryHitRate(), 1e-9, "Unexpected dictionary hit rate");
+    }
+}
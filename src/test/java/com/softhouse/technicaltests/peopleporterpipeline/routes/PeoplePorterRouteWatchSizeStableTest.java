@@ -0,0 +1,67 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.IngestionMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PeoplePorterRouteWatchSizeStableTest extends PeoplePorterRouteTestSupport {
+
+    private static final int PERSON_COUNT = 100;
+
+    private static final String INPUT_DIR = "target/test-watch-stable-input";
+    private static final String OUTPUT_DIR = "target/test-watch-stable-output";
+    private static final String ERROR_DIR = "target/test-watch-stable-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                // A poll interval far beyond the test, so only filesystem events can trigger a poll
+                "file:" + INPUT_DIR + "?noop=false&delete=true&initialDelay=60000&delay=60000",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder()
+                        .ingestionMode(IngestionMode.WATCH_SIZE_STABLE)
+                        .inputQuietPeriod(Duration.ofMillis(300))
+                        .build()
+        );
+    }
+
+    // Before the context starts, so the folder is not replaced while it is being watched
+    @Override
+    protected void doPreSetup() {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+    }
+
+    @Test
+    void testFileIsNotPickedUpWhileBeingWritten() throws Exception {
+        // Written slowly, in pauses shorter than the quiet period
+        try (Writer writer = Files.newBufferedWriter(Path.of(INPUT_DIR, "slow-input.txt"))) {
+            for (int i = 0; i < PERSON_COUNT; i++) {
+                writer.write("P|Person" + i + "|Lastname\n");
+                writer.write("A|Street " + i + "|Stockholm|10001\n");
+                if (i % 20 == 19) {
+                    writer.flush();
+                    Thread.sleep(100);
+                }
+            }
+        }
+
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        awaitFiles(actualOutput);
+
+        List<String> expected = IntStream.range(0, PERSON_COUNT).mapToObj(i -> "Person" + i).toList();
+        assertEquals(expected, firstnames(actualOutput), "The file was picked up before it was completely written");
+    }
+}
@@ -0,0 +1,56 @@
+package com.softhouse.technicaltests.peopleporterpipeline.routes;
+
+import com.softhouse.technicaltests.peopleporterpipeline.config.IngestionMode;
+import com.softhouse.technicaltests.peopleporterpipeline.config.PipelineOptions;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.camel.test.junit5.TestSupport.createDirectory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeoplePorterRouteWatchTest extends PeoplePorterRouteTestSupport {
+
+    private static final String INPUT_DIR = "target/test-watch-input";
+    private static final String OUTPUT_DIR = "target/test-watch-output";
+    private static final String ERROR_DIR = "target/test-watch-error";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new PeoplePorterRoute(
+                // A poll interval far beyond the test, so only filesystem events can trigger a poll
+                "file:" + INPUT_DIR + "?noop=false&delete=true&initialDelay=60000&delay=60000",
+                "file:" + OUTPUT_DIR + "?fileName=people.xml",
+                "file:" + ERROR_DIR,
+                PipelineOptions.builder().ingestionMode(IngestionMode.WATCH_DONE_MARKER).build()
+        );
+    }
+
+    // Before the context starts, so the folder is not replaced while it is being watched
+    @Override
+    protected void doPreSetup() {
+        resetDirectories(INPUT_DIR, OUTPUT_DIR, ERROR_DIR);
+        createDirectory(INPUT_DIR);
+    }
+
+    @Test
+    void testFileIsPickedUpOnceItsDoneMarkerIsWritten() throws Exception {
+        copyTestInput(INPUT_DIR);
+        Thread.sleep(1000); // Give Camel the chance to pick up the file too early
+
+        Path actualOutput = Path.of(OUTPUT_DIR, "people.xml");
+        assertFalse(Files.exists(actualOutput), "The file was picked up before its done marker was written");
+        assertTrue(Files.exists(Path.of(INPUT_DIR, TEST_INPUT_FILENAME)), "The file was consumed before its done marker was written");
+
+        Path doneMarker = Files.createFile(Path.of(INPUT_DIR, TEST_INPUT_FILENAME + ".done"));
+        awaitFiles(actualOutput);
+
+        assertEquals(normalizeXml(loadResource(EXPECTED_OUTPUT_FILENAME)), normalizeXml(Files.readString(actualOutput)),
+                "The generated XML does not match the expected output");
+        assertFalse(Files.exists(doneMarker), "The done marker was not removed with the file");
+    }
+}